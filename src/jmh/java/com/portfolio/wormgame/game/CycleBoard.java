@@ -0,0 +1,71 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import com.portfolio.wormgame.domain.WormBody;
+
+/**
+ * A Hamiltonian cycle over a width x height board (height even): a
+ * serpentine through columns 1..width-1 that returns up column 0. A worm
+ * laid along it can follow it forever without running into itself.
+ */
+final class CycleBoard {
+
+    final int width;
+    final int height;
+    final long[] cells;
+    final Direction[] directions;
+
+    CycleBoard(int width, int height) {
+        if (height % 2 != 0 || width < 2) {
+            throw new IllegalArgumentException("Need an even height and a width of at least 2");
+        }
+        this.width = width;
+        this.height = height;
+        this.cells = new long[width * height];
+        int i = 0;
+        for (int y = 0; y < height; y++) {
+            for (int step = 1; step < width; step++) {
+                int x = y % 2 == 0 ? step : width - step;
+                this.cells[i++] = WormBody.pack(x, y);
+            }
+        }
+        for (int y = height - 1; y >= 0; y--) {
+            this.cells[i++] = WormBody.pack(0, y);
+        }
+        this.directions = new Direction[this.cells.length];
+        for (int j = 0; j < this.cells.length; j++) {
+            this.directions[j] = between(this.cells[j], this.cells[(j + 1) % this.cells.length]);
+        }
+    }
+
+    /** Smallest square board with an even side and at least the given number of cells. */
+    static CycleBoard withAtLeast(int cells) {
+        int side = Math.max(4, (int) Math.ceil(Math.sqrt(cells)));
+        return new CycleBoard(side + side % 2, side + side % 2);
+    }
+
+    int size() {
+        return this.cells.length;
+    }
+
+    /** Direction to take when the head is at cycle index {@code index}. */
+    Direction after(long index) {
+        return this.directions[(int) (index % this.cells.length)];
+    }
+
+    /** Lays the worm along the first {@code length} cells of the cycle. */
+    void layWorm(GameEngine engine, int length) {
+        Direction heading = length > 1 ? this.directions[length - 2] : Direction.DOWN;
+        engine.getWorm().restore(this.cells, length, heading, false);
+        engine.respawnFruit();
+    }
+
+    private static Direction between(long from, long to) {
+        int dx = WormBody.unpackX(to) - WormBody.unpackX(from);
+        int dy = WormBody.unpackY(to) - WormBody.unpackY(from);
+        if (dx == 1) return Direction.RIGHT;
+        if (dx == -1) return Direction.LEFT;
+        if (dy == 1) return Direction.DOWN;
+        return Direction.UP;
+    }
+}
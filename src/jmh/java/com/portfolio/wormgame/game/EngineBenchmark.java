@@ -0,0 +1,77 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.domain.FruitType;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Fruit spawning and full WormGame ticks on a 320 x 320 board by how much
+ * of it the worm covers. The worm is steered along a Hamiltonian cycle;
+ * when a mushroom or a full board ends the game, the tick restores the
+ * starting snapshot, which is rare enough not to skew the average.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+    private static final int SIDE = 320;
+
+    @Param({"0", "0.5", "0.9", "0.99"})
+    public double fill;
+
+    private CycleBoard board;
+    private GameEngine engine;
+    private WormGame game;
+    private GameSnapshotCodec codec;
+    private ByteBuffer start;
+    private long startHead;
+    private long headIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.board = new CycleBoard(SIDE, SIDE);
+        int length = Math.max(3, (int) (this.fill * this.board.size()));
+        this.engine = new GameEngine(SIDE, SIDE, 1L);
+        this.board.layWorm(this.engine, length);
+        this.game = new WormGame(this.engine);
+        this.codec = new GameSnapshotCodec();
+        this.start = ByteBuffer.allocate(GameSnapshotCodec.maxEncodedSize(this.engine));
+        this.codec.encode(this.engine, this.start).flip();
+        this.startHead = length - 1;
+        this.headIndex = this.startHead;
+    }
+
+    @Benchmark
+    public long spawnFruitByType() {
+        this.engine.respawnFruit();
+        return this.engine.getFruitCell(FruitType.APPLE);
+    }
+
+    @Benchmark
+    public long tick() {
+        if (!this.engine.continues()) {
+            this.start.rewind();
+            this.codec.decode(this.start, this.engine);
+            this.headIndex = this.startHead;
+        }
+        this.engine.submitInput(this.board.after(this.headIndex++));
+        this.game.tick();
+        return this.engine.getTick();
+    }
+}
@@ -0,0 +1,73 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.domain.OccupancyGrid;
+import com.portfolio.wormgame.domain.Piece;
+import com.portfolio.wormgame.domain.Worm;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Worm operations by body length, on a board twice the worm's size. The
+ * worm follows a Hamiltonian cycle so it never dies or changes length.
+ * {@code occupancy=scan} builds the worm without a grid to measure the
+ * linear fallback.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WormBenchmark {
+
+    @Param({"3", "100", "10000", "100000"})
+    public int length;
+
+    @Param({"grid", "scan"})
+    public String occupancy;
+
+    private CycleBoard board;
+    private Worm worm;
+    private Piece missing;
+    private long headIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.board = CycleBoard.withAtLeast(this.length * 2);
+        OccupancyGrid grid = "grid".equals(this.occupancy)
+                ? new OccupancyGrid(this.board.width, this.board.height) : null;
+        this.worm = new Worm(0, 0, this.board.after(0), grid);
+        this.worm.restore(this.board.cells, this.length, this.board.after(this.length - 2), false);
+        this.headIndex = this.length - 1;
+        // a cell the worm never covers, so a scan has to look at every piece
+        this.missing = new Piece(this.board.width + 1, this.board.height + 1);
+    }
+
+    @Benchmark
+    public int move() {
+        this.worm.setDirection(this.board.after(this.headIndex++));
+        this.worm.move();
+        return this.worm.getHeadX();
+    }
+
+    @Benchmark
+    public boolean runsInto() {
+        return this.worm.runsInto(this.missing);
+    }
+
+    @Benchmark
+    public boolean runsIntoItself() {
+        return this.worm.runsIntoItself();
+    }
+}
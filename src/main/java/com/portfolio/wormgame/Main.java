@@ -1,19 +1,32 @@
 package com.portfolio.wormgame;
 
+import java.util.Arrays;
 import javax.swing.SwingUtilities;
+import com.portfolio.wormgame.gui.SpriteCache;
 import com.portfolio.wormgame.gui.UserInterface;
 import com.portfolio.wormgame.game.WormGame;
+import com.portfolio.wormgame.game.SessionManager;
+import com.portfolio.wormgame.game.StressBenchmark;
 import com.portfolio.wormgame.server.VncStreamServer;
 import com.portfolio.wormgame.server.SimpleWebServer;
 
 public class Main {
     private static VncStreamServer vncServer;
     private static UserInterface ui;
+    private static SessionManager sessions;
 
     public static void main(String[] args) {
+        if (args.length > 0 && "--benchmark".equals(args[0])) {
+            StressBenchmark.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         System.out.println("🚀 Starting Worm Game with VNC Streaming...");
         
         WormGame game = new WormGame(20, 20);
+        SpriteCache.warm(20);
+        sessions = SessionManager.perCore();
+        sessions.start();
         
         if (!java.awt.GraphicsEnvironment.isHeadless()) {
             startGUI(game);
@@ -51,12 +64,11 @@ public class Main {
     
     private static void startVncServer(WormGame game) {
         try {
-            if (ui != null) {
-                vncServer = new VncStreamServer(ui, 8080, game);
-                vncServer.start();
-            } else {
-                System.out.println("⚠️  GUI not available - VNC server not started");
+            if (ui == null) {
+                System.out.println("⚠️  GUI not available - streaming rasterized frames instead");
             }
+            vncServer = new VncStreamServer(ui, 8080, game, sessions);
+            vncServer.start();
         } catch (Exception e) {
             System.err.println("❌ Failed to start VNC server: " + e.getMessage());
             System.out.println("📋 Starting simple web server instead...");
@@ -0,0 +1,318 @@
+package com.portfolio.wormgame.domain;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+/**
+ * Sparse {@link Occupancy} for boards too large to hold one counter per
+ * cell. The board is cut into 64 x 64 chunks that only exist while some
+ * cell in them holds a worm piece or a reservation; a chunk is dropped as
+ * soon as its last cell empties. Chunks are found through an open-addressed
+ * table keyed by chunk coordinates, so lookups stay O(1) and memory follows
+ * the occupied area instead of the board area.
+ *
+ * Free cells are not indexed. {@link #randomFreeCell(Random)} samples the
+ * board and retries on taken cells, falling back to a scan when the board
+ * is nearly full, which on the boards this class is meant for never is.
+ */
+public class ChunkedOccupancy implements Occupancy {
+
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int SAMPLE_ATTEMPTS = 64;
+    private static final int MAX_POOLED_CHUNKS = 64;
+
+    private final int width;
+    private final int height;
+    private final long area;
+    private long taken;
+
+    private long[] keys = new long[64];
+    private Chunk[] chunks = new Chunk[64];
+    private int chunkCount;
+    private final ArrayDeque<Chunk> pool = new ArrayDeque<>();
+
+    private long lastKey = Long.MIN_VALUE;
+    private Chunk lastChunk;
+
+    public ChunkedOccupancy(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.area = (long) width * height;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Number of chunks currently allocated.
+     */
+    public int getChunkCount() {
+        return this.chunkCount;
+    }
+
+    /**
+     * Number of cells inside the walls holding a worm piece or a reservation.
+     */
+    public long getTakenCells() {
+        return this.taken;
+    }
+
+    @Override
+    public void add(int x, int y) {
+        if (!isTracked(x, y)) {
+            return;
+        }
+        Chunk chunk = chunkFor(x, y, true);
+        int index = cellIndex(x, y);
+        if (chunk.counts[index]++ == 0 && !chunk.isReserved(index)) {
+            taken(chunk, x, y, 1);
+        }
+    }
+
+    @Override
+    public void remove(int x, int y) {
+        if (!isTracked(x, y)) {
+            return;
+        }
+        Chunk chunk = chunkFor(x, y, false);
+        if (chunk == null) {
+            return;
+        }
+        int index = cellIndex(x, y);
+        if (chunk.counts[index] > 0 && --chunk.counts[index] == 0 && !chunk.isReserved(index)) {
+            taken(chunk, x, y, -1);
+        }
+    }
+
+    @Override
+    public int count(int x, int y) {
+        if (!isTracked(x, y)) {
+            return 0;
+        }
+        Chunk chunk = chunkFor(x, y, false);
+        return chunk == null ? 0 : chunk.counts[cellIndex(x, y)];
+    }
+
+    @Override
+    public void reserve(int x, int y) {
+        if (!isInside(x, y)) {
+            return;
+        }
+        Chunk chunk = chunkFor(x, y, true);
+        int index = cellIndex(x, y);
+        if (chunk.isReserved(index)) {
+            return;
+        }
+        chunk.setReserved(index, true);
+        if (chunk.counts[index] == 0) {
+            taken(chunk, x, y, 1);
+        }
+    }
+
+    @Override
+    public void release(int x, int y) {
+        if (!isInside(x, y)) {
+            return;
+        }
+        Chunk chunk = chunkFor(x, y, false);
+        if (chunk == null) {
+            return;
+        }
+        int index = cellIndex(x, y);
+        if (!chunk.isReserved(index)) {
+            return;
+        }
+        chunk.setReserved(index, false);
+        if (chunk.counts[index] == 0) {
+            taken(chunk, x, y, -1);
+        }
+    }
+
+    @Override
+    public long randomFreeCell(Random random) {
+        if (this.taken >= this.area) {
+            return NO_CELL;
+        }
+        for (int i = 0; i < SAMPLE_ATTEMPTS; i++) {
+            int x = random.nextInt(this.width);
+            int y = random.nextInt(this.height);
+            if (isFree(x, y)) {
+                return WormBody.pack(x, y);
+            }
+        }
+        long start = (long) random.nextInt(this.height) * this.width + random.nextInt(this.width);
+        for (long i = 0; i < this.area; i++) {
+            long cell = (start + i) % this.area;
+            int x = (int) (cell % this.width);
+            int y = (int) (cell / this.width);
+            if (isFree(x, y)) {
+                return WormBody.pack(x, y);
+            }
+        }
+        return NO_CELL;
+    }
+
+    @Override
+    public void clear() {
+        this.keys = new long[64];
+        this.chunks = new Chunk[64];
+        this.chunkCount = 0;
+        this.taken = 0;
+        this.lastKey = Long.MIN_VALUE;
+        this.lastChunk = null;
+    }
+
+    private boolean isFree(int x, int y) {
+        Chunk chunk = chunkFor(x, y, false);
+        if (chunk == null) {
+            return true;
+        }
+        int index = cellIndex(x, y);
+        return chunk.counts[index] == 0 && !chunk.isReserved(index);
+    }
+
+    /**
+     * Books a cell turning taken (+1) or free (-1). Cells past the walls
+     * only keep their chunk alive and do not count against the board.
+     */
+    private void taken(Chunk chunk, int x, int y, int delta) {
+        chunk.live += delta;
+        if (isInside(x, y)) {
+            this.taken += delta;
+        }
+        if (chunk.live == 0) {
+            dropChunk(chunkKey(x, y));
+        }
+    }
+
+    private boolean isTracked(int x, int y) {
+        return x >= -1 && y >= -1 && x <= this.width + 1 && y <= this.height + 1;
+    }
+
+    private boolean isInside(int x, int y) {
+        return x >= 0 && y >= 0 && x < this.width && y < this.height;
+    }
+
+    private static int cellIndex(int x, int y) {
+        return ((y & CHUNK_MASK) << CHUNK_SHIFT) | (x & CHUNK_MASK);
+    }
+
+    private static long chunkKey(int x, int y) {
+        return WormBody.pack(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT);
+    }
+
+    private Chunk chunkFor(int x, int y, boolean create) {
+        long key = chunkKey(x, y);
+        if (key == this.lastKey && this.lastChunk != null) {
+            return this.lastChunk;
+        }
+        int slot = findSlot(key);
+        Chunk chunk = this.chunks[slot];
+        if (chunk == null) {
+            if (!create) {
+                return null;
+            }
+            chunk = this.pool.isEmpty() ? new Chunk() : this.pool.pop();
+            if (this.chunkCount + 1 > this.chunks.length / 2) {
+                grow();
+                slot = findSlot(key);
+            }
+            this.keys[slot] = key;
+            this.chunks[slot] = chunk;
+            this.chunkCount++;
+        }
+        this.lastKey = key;
+        this.lastChunk = chunk;
+        return chunk;
+    }
+
+    private int findSlot(long key) {
+        int mask = this.chunks.length - 1;
+        int slot = hash(key) & mask;
+        while (this.chunks[slot] != null && this.keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void grow() {
+        long[] oldKeys = this.keys;
+        Chunk[] oldChunks = this.chunks;
+        this.keys = new long[oldKeys.length * 2];
+        this.chunks = new Chunk[oldChunks.length * 2];
+        for (int i = 0; i < oldChunks.length; i++) {
+            if (oldChunks[i] != null) {
+                int slot = findSlot(oldKeys[i]);
+                this.keys[slot] = oldKeys[i];
+                this.chunks[slot] = oldChunks[i];
+            }
+        }
+    }
+
+    /**
+     * Removes an empty chunk, shifting later entries of its probe run back
+     * so lookups never need tombstones. An empty chunk is all zeroes, so it
+     * can go straight back to the pool.
+     */
+    private void dropChunk(long key) {
+        int mask = this.chunks.length - 1;
+        int slot = findSlot(key);
+        Chunk chunk = this.chunks[slot];
+        if (chunk == null) {
+            return;
+        }
+        this.chunks[slot] = null;
+        this.chunkCount--;
+        int next = (slot + 1) & mask;
+        while (this.chunks[next] != null) {
+            int home = hash(this.keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                this.keys[slot] = this.keys[next];
+                this.chunks[slot] = this.chunks[next];
+                this.chunks[next] = null;
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        if (this.lastChunk == chunk) {
+            this.lastChunk = null;
+            this.lastKey = Long.MIN_VALUE;
+        }
+        if (this.pool.size() < MAX_POOLED_CHUNKS) {
+            this.pool.push(chunk);
+        }
+    }
+
+    private static final class Chunk {
+
+        final short[] counts = new short[CHUNK_SIZE * CHUNK_SIZE];
+        final long[] reserved = new long[CHUNK_SIZE * CHUNK_SIZE / 64];
+        int live;
+
+        boolean isReserved(int index) {
+            return (this.reserved[index >>> 6] & (1L << index)) != 0;
+        }
+
+        void setReserved(int index, boolean value) {
+            if (value) {
+                this.reserved[index >>> 6] |= 1L << index;
+            } else {
+                this.reserved[index >>> 6] &= ~(1L << index);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.portfolio.wormgame.domain;
+
+import java.util.Random;
+
+/**
+ * Set of empty cells on a width x height board. Cells are kept densely
+ * packed with a reverse position map, so add, remove and picking a
+ * uniformly random free cell are all O(1) whatever the fill level.
+ */
+public class FreeCellIndex {
+
+    private final int width;
+    private final int height;
+    private final int[] cells;
+    private final int[] positions;
+    private int size;
+
+    public FreeCellIndex(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.cells = new int[width * height];
+        this.positions = new int[width * height];
+        reset();
+    }
+
+    public void reset() {
+        for (int i = 0; i < this.cells.length; i++) {
+            this.cells[i] = i;
+            this.positions[i] = i;
+        }
+        this.size = this.cells.length;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isFull() {
+        return this.size == 0;
+    }
+
+    public boolean contains(int x, int y) {
+        return inBounds(x, y) && this.positions[y * this.width + x] >= 0;
+    }
+
+    public void add(int x, int y) {
+        if (!inBounds(x, y)) {
+            return;
+        }
+        int cell = y * this.width + x;
+        if (this.positions[cell] >= 0) {
+            return;
+        }
+        this.cells[this.size] = cell;
+        this.positions[cell] = this.size;
+        this.size++;
+    }
+
+    public void remove(int x, int y) {
+        if (!inBounds(x, y)) {
+            return;
+        }
+        int cell = y * this.width + x;
+        int position = this.positions[cell];
+        if (position < 0) {
+            return;
+        }
+        int last = this.cells[--this.size];
+        this.cells[position] = last;
+        this.positions[last] = position;
+        this.positions[cell] = -1;
+    }
+
+    /**
+     * Returns a uniformly chosen free cell as y * width + x, or -1 when
+     * the board is full.
+     */
+    public int randomCell(Random random) {
+        if (this.size == 0) {
+            return -1;
+        }
+        return this.cells[random.nextInt(this.size)];
+    }
+
+    public int cellX(int cell) {
+        return cell % this.width;
+    }
+
+    public int cellY(int cell) {
+        return cell / this.width;
+    }
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < this.width && y < this.height;
+    }
+}
@@ -0,0 +1,174 @@
+package com.portfolio.wormgame.domain;
+
+import java.util.Arrays;
+
+/**
+ * Fruits on a board, indexed by cell. An open-addressed table maps packed
+ * cells to fruit types for O(1) "what is under the head" lookups, and a
+ * dense list per {@link FruitType} supports counting, iterating and O(1)
+ * removal by swapping in the last entry. Memory follows the number of
+ * fruits, not the board size.
+ */
+public class FruitStore {
+
+    private static final FruitType[] FRUIT_TYPES = FruitType.values();
+    private static final byte EMPTY = 0;
+
+    private long[] keys;
+    // FruitType ordinal + 1, or EMPTY
+    private byte[] types;
+    private int[] positions;
+    private int size;
+
+    private final long[][] cellsByType = new long[FRUIT_TYPES.length][];
+    private final int[] counts = new int[FRUIT_TYPES.length];
+
+    public FruitStore() {
+        this(4);
+    }
+
+    public FruitStore(int expectedFruits) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedFruits * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.types = new byte[capacity];
+        this.positions = new int[capacity];
+        for (int i = 0; i < this.cellsByType.length; i++) {
+            this.cellsByType[i] = new long[Math.max(1, expectedFruits)];
+        }
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public int count(FruitType type) {
+        return this.counts[type.ordinal()];
+    }
+
+    /**
+     * The index-th fruit cell of the given type, packed as by
+     * {@link WormBody#pack}. Indexes shift when fruits are removed.
+     */
+    public long cell(FruitType type, int index) {
+        if (index < 0 || index >= this.counts[type.ordinal()]) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Count: " + this.counts[type.ordinal()]);
+        }
+        return this.cellsByType[type.ordinal()][index];
+    }
+
+    /** The fruit at the given cell, or null. */
+    public FruitType get(int x, int y) {
+        int slot = findSlot(WormBody.pack(x, y));
+        return this.types[slot] == EMPTY ? null : FRUIT_TYPES[this.types[slot] - 1];
+    }
+
+    /**
+     * Puts a fruit on a cell; returns false if the cell already has one.
+     */
+    public boolean add(int x, int y, FruitType type) {
+        long cell = WormBody.pack(x, y);
+        int slot = findSlot(cell);
+        if (this.types[slot] != EMPTY) {
+            return false;
+        }
+        if ((this.size + 1) * 2 > this.keys.length) {
+            resize(this.keys.length << 1);
+            slot = findSlot(cell);
+        }
+        int ordinal = type.ordinal();
+        long[] cells = this.cellsByType[ordinal];
+        if (this.counts[ordinal] == cells.length) {
+            cells = Arrays.copyOf(cells, cells.length << 1);
+            this.cellsByType[ordinal] = cells;
+        }
+        cells[this.counts[ordinal]] = cell;
+        this.keys[slot] = cell;
+        this.types[slot] = (byte) (ordinal + 1);
+        this.positions[slot] = this.counts[ordinal]++;
+        this.size++;
+        return true;
+    }
+
+    /**
+     * Takes the fruit off a cell and returns its type, or null if there
+     * was none.
+     */
+    public FruitType remove(int x, int y) {
+        int slot = findSlot(WormBody.pack(x, y));
+        if (this.types[slot] == EMPTY) {
+            return null;
+        }
+        int ordinal = this.types[slot] - 1;
+        int position = this.positions[slot];
+        long[] cells = this.cellsByType[ordinal];
+        int last = --this.counts[ordinal];
+        if (position != last) {
+            long moved = cells[last];
+            cells[position] = moved;
+            this.positions[findSlot(moved)] = position;
+        }
+        deleteSlot(slot);
+        this.size--;
+        return FRUIT_TYPES[ordinal];
+    }
+
+    public void clear() {
+        if (this.size > 0) {
+            Arrays.fill(this.types, EMPTY);
+            Arrays.fill(this.counts, 0);
+            this.size = 0;
+        }
+    }
+
+    private int findSlot(long cell) {
+        int mask = this.keys.length - 1;
+        int slot = hash(cell) & mask;
+        while (this.types[slot] != EMPTY && this.keys[slot] != cell) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(long cell) {
+        long h = cell * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void deleteSlot(int slot) {
+        int mask = this.keys.length - 1;
+        this.types[slot] = EMPTY;
+        int next = (slot + 1) & mask;
+        while (this.types[next] != EMPTY) {
+            int home = hash(this.keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                this.keys[slot] = this.keys[next];
+                this.types[slot] = this.types[next];
+                this.positions[slot] = this.positions[next];
+                this.types[next] = EMPTY;
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = this.keys;
+        byte[] oldTypes = this.types;
+        int[] oldPositions = this.positions;
+        this.keys = new long[capacity];
+        this.types = new byte[capacity];
+        this.positions = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldTypes[i] != EMPTY) {
+                int slot = findSlot(oldKeys[i]);
+                this.keys[slot] = oldKeys[i];
+                this.types[slot] = oldTypes[i];
+                this.positions[slot] = oldPositions[i];
+            }
+        }
+    }
+}
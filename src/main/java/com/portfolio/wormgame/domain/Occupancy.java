@@ -0,0 +1,48 @@
+package com.portfolio.wormgame.domain;
+
+import java.util.Random;
+
+/**
+ * Board-wide record of which cells hold worm pieces, plus the free cells
+ * fruit may spawn on. Cells are addressed by x and y; the cells just past
+ * each wall are tracked too so a head that crossed one is still seen.
+ */
+public interface Occupancy {
+
+    /** Returned by {@link #randomFreeCell(Random)} when the board is full. */
+    long NO_CELL = Long.MIN_VALUE;
+
+    int getWidth();
+
+    int getHeight();
+
+    void add(int x, int y);
+
+    void remove(int x, int y);
+
+    int count(int x, int y);
+
+    default boolean isOccupied(int x, int y) {
+        return count(x, y) > 0;
+    }
+
+    /**
+     * Takes a free cell out of the spawn pool without putting a worm piece
+     * on it, e.g. for a fruit.
+     */
+    void reserve(int x, int y);
+
+    /**
+     * Undoes {@link #reserve(int, int)}; the cell becomes free again unless
+     * a worm piece sits on it.
+     */
+    void release(int x, int y);
+
+    /**
+     * A free cell inside the walls packed as by {@link WormBody#pack}, or
+     * {@link #NO_CELL} when there is none.
+     */
+    long randomFreeCell(Random random);
+
+    void clear();
+}
@@ -0,0 +1,111 @@
+package com.portfolio.wormgame.domain;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Per-cell count of worm pieces on a board. Also covers the cells just
+ * past each wall so that a head which has crossed one is still tracked;
+ * anything further out reads as empty.
+ */
+public class OccupancyGrid implements Occupancy {
+
+    private final int width;
+    private final int height;
+    private final int stride;
+    private final short[] counts;
+    private final FreeCellIndex freeCells;
+
+    public OccupancyGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.stride = width + 3;
+        this.counts = new short[this.stride * (height + 3)];
+        this.freeCells = new FreeCellIndex(width, height);
+    }
+
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    @Override
+    public void add(int x, int y) {
+        int index = indexOf(x, y);
+        if (index >= 0 && this.counts[index]++ == 0) {
+            this.freeCells.remove(x, y);
+        }
+    }
+
+    @Override
+    public void remove(int x, int y) {
+        int index = indexOf(x, y);
+        if (index >= 0 && --this.counts[index] == 0) {
+            this.freeCells.add(x, y);
+        }
+    }
+
+    @Override
+    public int count(int x, int y) {
+        int index = indexOf(x, y);
+        return index >= 0 ? this.counts[index] : 0;
+    }
+
+    public int countAt(int index) {
+        return this.counts[index];
+    }
+
+    @Override
+    public void reserve(int x, int y) {
+        this.freeCells.remove(x, y);
+    }
+
+    @Override
+    public void release(int x, int y) {
+        if (count(x, y) == 0) {
+            this.freeCells.add(x, y);
+        }
+    }
+
+    @Override
+    public long randomFreeCell(Random random) {
+        int cell = this.freeCells.randomCell(random);
+        if (cell < 0) {
+            return NO_CELL;
+        }
+        return WormBody.pack(this.freeCells.cellX(cell), this.freeCells.cellY(cell));
+    }
+
+    public FreeCellIndex getFreeCells() {
+        return this.freeCells;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(this.counts, (short) 0);
+        this.freeCells.reset();
+    }
+
+    /**
+     * Number of tracked cells, including the ones just past the walls.
+     */
+    public int cellCount() {
+        return this.counts.length;
+    }
+
+    /**
+     * Dense index of a tracked cell for side tables sized by
+     * {@link #cellCount()}, or -1 if the cell is not tracked.
+     */
+    public int indexOf(int x, int y) {
+        if (x < -1 || y < -1 || x > this.width + 1 || y > this.height + 1) {
+            return -1;
+        }
+        return (y + 1) * this.stride + (x + 1);
+    }
+}
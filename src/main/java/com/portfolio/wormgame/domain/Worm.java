@@ -1,25 +1,32 @@
 package com.portfolio.wormgame.domain;
 
 import com.portfolio.wormgame.Direction;
+import java.util.AbstractList;
 import java.util.List;
-import java.util.ArrayList;
 
 public class Worm {
-    
-    private List<Piece> worm = new ArrayList<Piece>();
+
+    private WormBody worm = new WormBody();
+    private List<Piece> pieces = new PieceView();
     private Direction originalDirection;
     private int originalX;
     private int originalY;
     private boolean grow;
-    
+    private Occupancy grid;
+
     public Worm (int originalX, int originalY, Direction originalDirection) {
+        this(originalX, originalY, originalDirection, null);
+    }
+
+    public Worm (int originalX, int originalY, Direction originalDirection, Occupancy grid) {
         this.originalX = originalX;
         this.originalY = originalY;
         this.originalDirection = originalDirection;
-        this.worm.add(0, new Piece(this.originalX, this.originalY));
+        this.grid = grid;
+        addHead(this.originalX, this.originalY);
         this.grow = false;
     }
-    
+
     public Direction getDirection() {
         return this.originalDirection;
     }
@@ -29,35 +36,30 @@ public class Worm {
         if (this.originalDirection == Direction.DOWN && newDirection == Direction.UP) return;
         if (this.originalDirection == Direction.LEFT && newDirection == Direction.RIGHT) return;
         if (this.originalDirection == Direction.RIGHT && newDirection == Direction.LEFT) return;
-        
+
         this.originalDirection = newDirection;
     }
-    
-    public void move() { 
+
+    public void move() {
         if (this.originalDirection == Direction.UP) {
-            worm.add(new Piece(this.originalX, this.originalY-1));
             this.originalY = this.originalY -1;
-
         } else if (this.originalDirection == Direction.DOWN) {
-            worm.add(new Piece(this.originalX, this.originalY+1));
             this.originalY = this.originalY +1;
-
         } else if (this.originalDirection == Direction.LEFT) {
-            worm.add(new Piece(this.originalX-1, this.originalY));
             this.originalX = this.originalX -1;
-
         } else if (this.originalDirection == Direction.RIGHT) {
-            worm.add(new Piece(this.originalX+1, this.originalY));
             this.originalX = this.originalX +1;
         }
+        addHead(this.originalX, this.originalY);
+
         if (this.getLength() > 3 && this.grow == false) {
-            worm.remove(0);
+            removeTail();
         }
         if (this.grow == true) {
             this.grow = false;
         }
     }
-    
+
     public void goBackwards() {
         if (this.originalDirection == Direction.DOWN) {
             this.originalDirection = Direction.UP;
@@ -73,40 +75,131 @@ public class Worm {
             move();
         }
     }
-    
+
     public int getLength() {
         return this.worm.size();
     }
-    
+
+    /**
+     * Read-only view of the body, tail first. Pieces are created on access,
+     * so callers on a hot path should prefer {@link #getBody()}.
+     */
     public List<Piece> getPieces() {
+        return this.pieces;
+    }
+
+    public WormBody getBody() {
         return this.worm;
     }
-    
+
+    public int getHeadX() {
+        return this.originalX;
+    }
+
+    public int getHeadY() {
+        return this.originalY;
+    }
+
     public void grow() {
         this.grow = true;
     }
-    
+
+    public boolean isGrowing() {
+        return this.grow;
+    }
+
+    /**
+     * Replaces the whole body with the given packed cells, tail first,
+     * keeping the occupancy grid in step.
+     */
+    public void restore(long[] cells, int length, Direction direction, boolean grow) {
+        if (length < 1) {
+            throw new IllegalArgumentException("Worm needs at least one piece");
+        }
+        while (!this.worm.isEmpty()) {
+            removeTail();
+        }
+        this.worm.ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            addHead(WormBody.unpackX(cells[i]), WormBody.unpackY(cells[i]));
+        }
+        this.originalX = WormBody.unpackX(cells[length - 1]);
+        this.originalY = WormBody.unpackY(cells[length - 1]);
+        this.originalDirection = direction;
+        this.grow = grow;
+    }
+
+    /**
+     * Records the worm's pieces in the given grid from now on, adding the
+     * ones it already has; null stops tracking. The old grid is left as is.
+     */
+    public void setOccupancy(Occupancy grid) {
+        this.grid = grid;
+        if (grid != null) {
+            for (int i = 0; i < this.worm.size(); i++) {
+                grid.add(this.worm.getX(i), this.worm.getY(i));
+            }
+        }
+    }
+
     public boolean runsInto(Piece piece) {
-        for (Piece p: this.worm) {
-            if (p.getX() == piece.getX() && p.getY() == piece.getY()) {
+        return runsInto(piece.getX(), piece.getY());
+    }
+
+    public boolean runsInto(int x, int y) {
+        if (this.grid != null) {
+            return this.grid.isOccupied(x, y);
+        }
+        for (int i = 0; i < this.worm.size(); i++) {
+            if (this.worm.getX(i) == x && this.worm.getY(i) == y) {
                 return true;
             }
         }
         return false;
     }
-    
+
     public boolean runsIntoItself() {
+        if (this.grid != null) {
+            return this.grid.count(this.originalX, this.originalY) > 1;
+        }
+        long head = this.worm.head();
         for (int i=0; i<getLength()-1; i++) {
-            if (this.worm.get(this.worm.size()-1).getX() == this.worm.get(i).getX() && 
-                    this.worm.get(this.worm.size()-1).getY() == this.worm.get(i).getY()) {
+            if (this.worm.get(i) == head) {
                 return true;
             }
         }
         return false;
     }
-    
+
     public void shrink() {
         this.grow = false;
-        this.worm.remove(worm.get(0));    
+        removeTail();
+    }
+
+    private void addHead(int x, int y) {
+        this.worm.addHead(x, y);
+        if (this.grid != null) {
+            this.grid.add(x, y);
+        }
+    }
+
+    private void removeTail() {
+        long tail = this.worm.removeTail();
+        if (this.grid != null) {
+            this.grid.remove(WormBody.unpackX(tail), WormBody.unpackY(tail));
+        }
+    }
+
+    private class PieceView extends AbstractList<Piece> {
+
+        @Override
+        public Piece get(int index) {
+            return new Piece(worm.getX(index), worm.getY(index));
+        }
+
+        @Override
+        public int size() {
+            return worm.size();
+        }
     }
 }
@@ -0,0 +1,131 @@
+package com.portfolio.wormgame.domain;
+
+/**
+ * Growable circular buffer of packed (x, y) coordinates.
+ * Index 0 is the tail and index size()-1 is the head, matching the
+ * order of {@link Worm#getPieces()}.
+ */
+public class WormBody {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] cells;
+    private int mask;
+    private int first;
+    private int size;
+
+    public WormBody() {
+        this(MIN_CAPACITY);
+    }
+
+    public WormBody(int initialCapacity) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < initialCapacity) {
+            capacity <<= 1;
+        }
+        this.cells = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    public static int unpackX(long cell) {
+        return (int) (cell >> 32);
+    }
+
+    public static int unpackY(long cell) {
+        return (int) cell;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void addHead(int x, int y) {
+        if (this.size == this.cells.length) {
+            grow();
+        }
+        this.cells[(this.first + this.size) & this.mask] = pack(x, y);
+        this.size++;
+    }
+
+    public long removeTail() {
+        if (this.size == 0) {
+            throw new IllegalStateException("Body is empty");
+        }
+        long cell = this.cells[this.first];
+        this.first = (this.first + 1) & this.mask;
+        this.size--;
+        return cell;
+    }
+
+    public long get(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+        return this.cells[(this.first + index) & this.mask];
+    }
+
+    public int getX(int index) {
+        return unpackX(get(index));
+    }
+
+    public int getY(int index) {
+        return unpackY(get(index));
+    }
+
+    public long head() {
+        return get(this.size - 1);
+    }
+
+    public long tail() {
+        return get(0);
+    }
+
+    public void clear() {
+        this.first = 0;
+        this.size = 0;
+    }
+
+    public void ensureCapacity(int capacity) {
+        while (this.cells.length < capacity) {
+            grow();
+        }
+    }
+
+    /**
+     * Copies the cells, tail first, into the start of the given array,
+     * which must hold at least {@link #size()} elements.
+     */
+    public void copyTo(long[] target) {
+        int headPart = Math.min(this.size, this.cells.length - this.first);
+        System.arraycopy(this.cells, this.first, target, 0, headPart);
+        System.arraycopy(this.cells, 0, target, headPart, this.size - headPart);
+    }
+
+    private void grow() {
+        long[] larger = new long[this.cells.length << 1];
+        copyTo(larger);
+        this.cells = larger;
+        this.mask = larger.length - 1;
+        this.first = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < this.size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append("(").append(getX(i)).append(", ").append(getY(i)).append(")");
+        }
+        return sb.append("]").toString();
+    }
+}
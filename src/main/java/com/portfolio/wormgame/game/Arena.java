@@ -0,0 +1,259 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import com.portfolio.wormgame.domain.FreeCellIndex;
+import com.portfolio.wormgame.domain.FruitType;
+import com.portfolio.wormgame.domain.OccupancyGrid;
+import com.portfolio.wormgame.domain.Worm;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Many worms competing on one board for shared fruit. All worms write to
+ * one {@link OccupancyGrid}, and two small side tables record which worm's
+ * head last entered each cell and which heads arrived this tick, so every
+ * collision is a constant-time lookup at a head: a tick costs time
+ * proportional to the number of living worms, not their total length.
+ *
+ * Walls and fruit effects follow {@link GameEngine}. A head that enters a
+ * cell holding another worm's body dies and the other worm is credited
+ * with the kill; heads meeting in one cell all die.
+ */
+public class Arena {
+
+    private static final FruitType[] FRUIT_TYPES = FruitType.values();
+
+    private final int width;
+    private final int height;
+    private final OccupancyGrid grid;
+    private final int[] owner;
+    private final long[] headTick;
+    private final int[] headCount;
+    private final byte[] fruitAt;
+    private final int fruitTarget;
+    private final GameRandom random;
+    private final List<ArenaWorm> worms = new ArrayList<>();
+    private final List<ArenaWorm> living = new ArrayList<>();
+    private int fruitCount;
+    private long tick;
+
+    public Arena(int width, int height, int fruitTarget, long seed) {
+        this.width = width;
+        this.height = height;
+        this.grid = new OccupancyGrid(width, height);
+        this.owner = new int[this.grid.cellCount()];
+        this.headTick = new long[this.grid.cellCount()];
+        this.headCount = new int[this.grid.cellCount()];
+        this.fruitAt = new byte[width * height];
+        this.fruitTarget = fruitTarget;
+        this.random = new GameRandom(seed);
+        refillFruit();
+    }
+
+    public int getWidth() {
+        return this.width;
+    }
+
+    public int getHeight() {
+        return this.height;
+    }
+
+    public long getTick() {
+        return this.tick;
+    }
+
+    public List<ArenaWorm> getWorms() {
+        return Collections.unmodifiableList(this.worms);
+    }
+
+    public ArenaWorm getWorm(int id) {
+        return this.worms.get(id);
+    }
+
+    public int getLivingCount() {
+        return this.living.size();
+    }
+
+    public int getFruitCount() {
+        return this.fruitCount;
+    }
+
+    /** Fruit at the given cell, or null. */
+    public FruitType getFruitAt(int x, int y) {
+        if (x < 0 || y < 0 || x >= this.width || y >= this.height) {
+            return null;
+        }
+        int type = this.fruitAt[y * this.width + x];
+        return type == 0 ? null : FRUIT_TYPES[type - 1];
+    }
+
+    /**
+     * Drops a new one-piece worm on a random free cell, heading in a random
+     * direction. Returns null if the board has no free cell left.
+     */
+    public ArenaWorm addWorm() {
+        FreeCellIndex freeCells = this.grid.getFreeCells();
+        int cell = freeCells.randomCell(this.random);
+        if (cell < 0) {
+            return null;
+        }
+        Direction direction = Direction.values()[this.random.nextInt(4)];
+        return addWorm(freeCells.cellX(cell), freeCells.cellY(cell), direction);
+    }
+
+    /** Drops a one-piece worm on the given cell; used by tests. */
+    ArenaWorm addWorm(int x, int y, Direction direction) {
+        Worm worm = new Worm(x, y, direction, this.grid);
+        ArenaWorm player = new ArenaWorm(this.worms.size(), worm);
+        this.owner[this.grid.indexOf(worm.getHeadX(), worm.getHeadY())] = player.getId();
+        this.worms.add(player);
+        this.living.add(player);
+        return player;
+    }
+
+    /**
+     * Advances every living worm by one tick. {@code inputs[id]} is the
+     * direction for worm {@code id}, or null for none; the array may be
+     * shorter than the number of worms.
+     */
+    public void step(Direction[] inputs) {
+        this.tick++;
+        for (int i = 0; i < this.living.size(); i++) {
+            ArenaWorm player = this.living.get(i);
+            Worm worm = player.getWorm();
+            int id = player.getId();
+            if (inputs != null && id < inputs.length && inputs[id] != null) {
+                worm.setDirection(inputs[id]);
+            }
+            worm.move();
+            int head = this.grid.indexOf(worm.getHeadX(), worm.getHeadY());
+            if (head >= 0) {
+                if (this.headTick[head] != this.tick) {
+                    this.headTick[head] = this.tick;
+                    this.headCount[head] = 0;
+                }
+                this.headCount[head]++;
+            }
+        }
+
+        for (int i = 0; i < this.living.size(); i++) {
+            ArenaWorm player = this.living.get(i);
+            Worm worm = player.getWorm();
+            int x = worm.getHeadX();
+            int y = worm.getHeadY();
+            int head = this.grid.indexOf(x, y);
+            if (head < 0 || x == -1 || x == this.width + 1 || y == -1 || y == this.height + 1) {
+                player.die(this.tick, ArenaWorm.NOBODY);
+            } else if (this.headCount[head] > 1) {
+                player.die(this.tick, ArenaWorm.NOBODY);
+            } else if (this.grid.countAt(head) > 1) {
+                int killer = this.owner[head];
+                if (killer != player.getId()) {
+                    this.worms.get(killer).scoredKill();
+                    player.die(this.tick, killer);
+                } else {
+                    player.die(this.tick, ArenaWorm.NOBODY);
+                }
+            }
+        }
+
+        int survivors = 0;
+        for (int i = 0; i < this.living.size(); i++) {
+            ArenaWorm player = this.living.get(i);
+            if (!player.isAlive()) {
+                clear(player.getWorm());
+                continue;
+            }
+            // claimed before fruit effects, since a mushroom moves the head on
+            claimHead(player);
+            eatFruit(player);
+            this.living.set(survivors++, player);
+        }
+        while (this.living.size() > survivors) {
+            this.living.remove(this.living.size() - 1);
+        }
+        refillFruit();
+    }
+
+    /**
+     * Takes a dead worm off the board. Its head may have died on a fruit
+     * it never got to eat; that cell must stay out of the free cells.
+     */
+    private void clear(Worm worm) {
+        int headX = worm.getHeadX();
+        int headY = worm.getHeadY();
+        while (worm.getLength() > 0) {
+            worm.shrink();
+        }
+        if (getFruitAt(headX, headY) != null) {
+            this.grid.reserve(headX, headY);
+        }
+    }
+
+    /** Credits the cell under the worm's head to it, for later kills there. */
+    private void claimHead(ArenaWorm player) {
+        Worm worm = player.getWorm();
+        int head = this.grid.indexOf(worm.getHeadX(), worm.getHeadY());
+        if (head >= 0) {
+            this.owner[head] = player.getId();
+        }
+    }
+
+    private void eatFruit(ArenaWorm player) {
+        Worm worm = player.getWorm();
+        int x = worm.getHeadX();
+        int y = worm.getHeadY();
+        if (x < 0 || y < 0 || x >= this.width || y >= this.height) {
+            return;
+        }
+        int cell = y * this.width + x;
+        int type = this.fruitAt[cell];
+        if (type == 0) {
+            return;
+        }
+        this.fruitAt[cell] = 0;
+        this.fruitCount--;
+        switch (FRUIT_TYPES[type - 1]) {
+            case APPLE:
+                player.ateApple();
+                worm.grow();
+                break;
+            case ORANGE:
+                if (worm.getLength() > 3) {
+                    worm.shrink();
+                }
+                break;
+            case MUSHROOM:
+                if (worm.getLength() > 3) {
+                    worm.goBackwards();
+                    claimHead(player);
+                }
+                break;
+        }
+    }
+
+    private void refillFruit() {
+        FreeCellIndex freeCells = this.grid.getFreeCells();
+        while (this.fruitCount < this.fruitTarget) {
+            int cell = freeCells.randomCell(this.random);
+            if (cell < 0) {
+                return;
+            }
+            placeFruit(freeCells.cellX(cell), freeCells.cellY(cell),
+                    FRUIT_TYPES[this.random.nextInt(FRUIT_TYPES.length)]);
+        }
+    }
+
+    /** Puts a fruit on a free cell; used by refilling and tests. */
+    void placeFruit(int x, int y, FruitType type) {
+        this.grid.reserve(x, y);
+        this.fruitAt[y * this.width + x] = (byte) (type.ordinal() + 1);
+        this.fruitCount++;
+    }
+
+    /** Whether the cell is free for a fruit or a new worm. */
+    boolean isFree(int x, int y) {
+        return this.grid.getFreeCells().contains(x, y);
+    }
+}
@@ -0,0 +1,71 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.domain.Worm;
+
+/**
+ * One player in an {@link Arena}: its worm plus per-worm score.
+ */
+public class ArenaWorm {
+
+    public static final int NOBODY = -1;
+
+    private final int id;
+    private final Worm worm;
+    private boolean alive = true;
+    private int apples;
+    private int kills;
+    private int killedBy = NOBODY;
+    private long diedOnTick;
+
+    ArenaWorm(int id, Worm worm) {
+        this.id = id;
+        this.worm = worm;
+    }
+
+    public int getId() {
+        return this.id;
+    }
+
+    public Worm getWorm() {
+        return this.worm;
+    }
+
+    public boolean isAlive() {
+        return this.alive;
+    }
+
+    public int getApples() {
+        return this.apples;
+    }
+
+    public int getKills() {
+        return this.kills;
+    }
+
+    /** Id of the worm this one ran into, {@link #NOBODY} for walls and itself. */
+    public int getKilledBy() {
+        return this.killedBy;
+    }
+
+    public long getDiedOnTick() {
+        return this.diedOnTick;
+    }
+
+    public int getScore() {
+        return this.apples + this.kills;
+    }
+
+    void ateApple() {
+        this.apples++;
+    }
+
+    void scoredKill() {
+        this.kills++;
+    }
+
+    void die(long tick, int killedBy) {
+        this.alive = false;
+        this.diedOnTick = tick;
+        this.killedBy = killedBy;
+    }
+}
@@ -0,0 +1,279 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import com.portfolio.wormgame.domain.FruitStore;
+import com.portfolio.wormgame.domain.FruitType;
+import com.portfolio.wormgame.domain.Worm;
+import com.portfolio.wormgame.domain.WormBody;
+import java.util.Arrays;
+
+/**
+ * Steers a worm towards the nearest apple, or the nearest other fruit if no
+ * apple can be reached. Each decision runs a breadth-first search outward
+ * from all target fruits at once, avoiding the body, and stops at the first
+ * layer that touches a cell next to the head.
+ * Frontiers are bitsets over the board expanded a word at a time by
+ * shifting, so a layer costs width * height / 64 word operations however
+ * many cells it holds.
+ *
+ * All buffers are allocated for one board size and reused on every call;
+ * one instance per thread can drive any number of worms. When no fruit is
+ * reachable it heads for the neighbouring cell with the most open space
+ * around it.
+ */
+public class Autopilot implements Strategy {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    // UP, RIGHT, DOWN, LEFT
+    private static final int[] DX = {0, 1, 0, -1};
+    private static final int[] DY = {-1, 0, 1, 0};
+
+    private int width;
+    private int height;
+    private int words;
+    private long[] open;
+    private long[] visited;
+    private long[] frontier;
+    private long[] next;
+    private long[] notFirstColumn;
+    private long[] notLastColumn;
+    private int[] distance;
+    private int[] generation;
+    private int currentGeneration;
+    private final int[] candidates = new int[4];
+
+    public Autopilot() {
+        this(0, 0);
+    }
+
+    public Autopilot(int width, int height) {
+        resize(width, height);
+    }
+
+    /**
+     * The direction to submit for the next tick, or null to keep going.
+     * Must be called from the thread that steps the engine.
+     */
+    @Override
+    public Direction decide(GameEngine engine) {
+        if (engine.getWidth() != this.width || engine.getHeight() != this.height) {
+            resize(engine.getWidth(), engine.getHeight());
+        }
+        Worm worm = engine.getWorm();
+        markOpenCells(worm);
+
+        int current = worm.getDirection().ordinal();
+        int count = 0;
+        for (int d = 0; d < 4; d++) {
+            // straight ahead first so ties keep the current heading
+            int direction = (current + d) & 3;
+            if (d == 2) {
+                continue;
+            }
+            int cell = cellAt(worm.getHeadX() + DX[direction], worm.getHeadY() + DY[direction]);
+            if (cell >= 0 && isSet(this.open, cell)) {
+                this.candidates[count++] = direction | (cell << 2);
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+
+        int chosen = search(engine.getFruits(), FruitType.APPLE, count);
+        if (chosen < 0) {
+            chosen = search(engine.getFruits(), null, count);
+        }
+        if (chosen < 0) {
+            chosen = roomiest(count);
+        }
+        return chosen == current ? null : DIRECTIONS[chosen];
+    }
+
+    /**
+     * Steps from the given cell to the nearest target in the last search,
+     * or -1 if the search never reached it.
+     */
+    public int getDistance(int x, int y) {
+        int cell = cellAt(x, y);
+        if (cell < 0 || this.generation[cell] != this.currentGeneration) {
+            return -1;
+        }
+        return this.distance[cell];
+    }
+
+    private void markOpenCells(Worm worm) {
+        Arrays.fill(this.open, -1L);
+        clearPastLastCell(this.open);
+
+        WormBody body = worm.getBody();
+        // the tail moves out of the way unless the worm is still growing
+        int first = body.size() >= 3 && !worm.isGrowing() ? 1 : 0;
+        for (int i = first; i < body.size(); i++) {
+            clear(this.open, cellAt(body.getX(i), body.getY(i)));
+        }
+    }
+
+    /**
+     * Multi-source BFS from the fruits of the given type, or all fruits if
+     * null; returns the direction of the first candidate reached, or -1.
+     */
+    private int search(FruitStore fruits, FruitType target, int count) {
+        this.currentGeneration++;
+        Arrays.fill(this.frontier, 0L);
+        for (FruitType type : FruitType.values()) {
+            if (target != null && type != target) {
+                continue;
+            }
+            for (int i = 0; i < fruits.count(type); i++) {
+                long packed = fruits.cell(type, i);
+                int cell = cellAt(WormBody.unpackX(packed), WormBody.unpackY(packed));
+                if (cell >= 0 && isSet(this.open, cell)) {
+                    set(this.frontier, cell);
+                }
+            }
+        }
+        System.arraycopy(this.frontier, 0, this.visited, 0, this.words);
+
+        for (int layer = 0; ; layer++) {
+            boolean any = false;
+            for (int i = 0; i < this.words; i++) {
+                long bits = this.frontier[i];
+                any |= bits != 0;
+                while (bits != 0) {
+                    int cell = (i << 6) + Long.numberOfTrailingZeros(bits);
+                    this.distance[cell] = layer;
+                    this.generation[cell] = this.currentGeneration;
+                    bits &= bits - 1;
+                }
+            }
+            if (!any) {
+                return -1;
+            }
+            for (int c = 0; c < count; c++) {
+                if (isSet(this.frontier, this.candidates[c] >>> 2)) {
+                    return this.candidates[c] & 3;
+                }
+            }
+            expand();
+            long[] swap = this.frontier;
+            this.frontier = this.next;
+            this.next = swap;
+        }
+    }
+
+    /**
+     * next = neighbours of frontier that are open and not yet visited.
+     */
+    private void expand() {
+        int w = this.width;
+        int wordShift = w >>> 6;
+        int bitShift = w & 63;
+        for (int i = 0; i < this.words; i++) {
+            long f = this.frontier[i];
+            // one column right: bit j -> j + 1, never into column 0
+            long right = (f << 1) | (i > 0 ? this.frontier[i - 1] >>> 63 : 0);
+            // one column left: bit j -> j - 1, never into the last column
+            long left = (f >>> 1) | (i + 1 < this.words ? this.frontier[i + 1] << 63 : 0);
+            long bits = (right & this.notFirstColumn[i]) | (left & this.notLastColumn[i]);
+            bits |= shiftedUp(i, wordShift, bitShift) | shiftedDown(i, wordShift, bitShift);
+            bits &= this.open[i] & ~this.visited[i];
+            this.next[i] = bits;
+            this.visited[i] |= bits;
+        }
+    }
+
+    /** Word i of frontier moved one row down (bit j -> j + width). */
+    private long shiftedDown(int i, int wordShift, int bitShift) {
+        int j = i - wordShift;
+        long value = j >= 0 ? this.frontier[j] << bitShift : 0;
+        if (bitShift != 0 && j - 1 >= 0) {
+            value |= this.frontier[j - 1] >>> (64 - bitShift);
+        }
+        return value;
+    }
+
+    /** Word i of frontier moved one row up (bit j -> j - width). */
+    private long shiftedUp(int i, int wordShift, int bitShift) {
+        int j = i + wordShift;
+        long value = j < this.words ? this.frontier[j] >>> bitShift : 0;
+        if (bitShift != 0 && j + 1 < this.words) {
+            value |= this.frontier[j + 1] << (64 - bitShift);
+        }
+        return value;
+    }
+
+    /** Candidate with the most open cells around it. */
+    private int roomiest(int count) {
+        int best = -1;
+        int bestRoom = -1;
+        for (int c = 0; c < count; c++) {
+            int cell = this.candidates[c] >>> 2;
+            int x = cell % this.width;
+            int y = cell / this.width;
+            int room = 0;
+            for (int d = 0; d < 4; d++) {
+                int neighbour = cellAt(x + DX[d], y + DY[d]);
+                if (neighbour >= 0 && isSet(this.open, neighbour)) {
+                    room++;
+                }
+            }
+            if (room > bestRoom) {
+                bestRoom = room;
+                best = this.candidates[c] & 3;
+            }
+        }
+        return best;
+    }
+
+    private void resize(int width, int height) {
+        this.width = width;
+        this.height = height;
+        int cells = width * height;
+        this.words = (cells + 63) >>> 6;
+        this.open = new long[this.words];
+        this.visited = new long[this.words];
+        this.frontier = new long[this.words];
+        this.next = new long[this.words];
+        this.notFirstColumn = new long[this.words];
+        this.notLastColumn = new long[this.words];
+        this.distance = new int[cells];
+        this.generation = new int[cells];
+        this.currentGeneration = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if (cell % width != 0) {
+                set(this.notFirstColumn, cell);
+            }
+            if (cell % width != width - 1) {
+                set(this.notLastColumn, cell);
+            }
+        }
+    }
+
+    private void clearPastLastCell(long[] bits) {
+        int used = (this.width * this.height) & 63;
+        if (used != 0) {
+            bits[this.words - 1] &= (1L << used) - 1;
+        }
+    }
+
+    private int cellAt(int x, int y) {
+        if (x < 0 || y < 0 || x >= this.width || y >= this.height) {
+            return -1;
+        }
+        return y * this.width + x;
+    }
+
+    private static boolean isSet(long[] bits, int cell) {
+        return (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    private static void set(long[] bits, int cell) {
+        bits[cell >>> 6] |= 1L << cell;
+    }
+
+    private static void clear(long[] bits, int cell) {
+        if (cell >= 0) {
+            bits[cell >>> 6] &= ~(1L << cell);
+        }
+    }
+}
@@ -0,0 +1,433 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import com.portfolio.wormgame.domain.FruitType;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Steps many games on the same board size at once, for self-play and
+ * balancing runs. State is held as structure-of-arrays indexed by game,
+ * and every game follows exactly the rules of {@link GameEngine#step}:
+ * given the same seed and inputs, game i here and a GameEngine end up in
+ * the same state.
+ *
+ * Actions are direction ordinals, or -1 for no input. Rewards are +1 for
+ * an apple, -1 when an orange shrinks the worm and -1 on death; a game
+ * that ends by filling the board gets no penalty. Finished games are left
+ * as they are until {@link #reset(int, long)}.
+ */
+public class BatchSimulation {
+
+    public static final byte NO_ACTION = -1;
+    public static final byte NO_FRUIT = -1;
+
+    private static final int UP = Direction.UP.ordinal();
+    private static final int RIGHT = Direction.RIGHT.ordinal();
+    private static final int DOWN = Direction.DOWN.ordinal();
+    private static final int LEFT = Direction.LEFT.ordinal();
+    private static final byte APPLE = (byte) FruitType.APPLE.ordinal();
+    private static final byte ORANGE = (byte) FruitType.ORANGE.ordinal();
+    private static final byte MUSHROOM = (byte) FruitType.MUSHROOM.ordinal();
+    private static final int GAMES_PER_TASK = 256;
+
+    private final int games;
+    private final int width;
+    private final int height;
+    private final int stride;
+    private final int padded;
+    private final int area;
+    private final ForkJoinPool pool;
+
+    private final int[] headX;
+    private final int[] headY;
+    private final byte[] direction;
+    private final int[] length;
+    private final int[] bodyFirst;
+    private final int[] body;
+    private final short[] counts;
+    private final int[] freeCells;
+    private final int[] freePositions;
+    private final int[] freeSize;
+    private final byte[] fruitType;
+    private final int[] fruitCell;
+    private final long[] tick;
+    private final int[] appleCounter;
+    private final long[] randomState;
+    private final boolean[] grow;
+    private final boolean[] hasSpawnedFirstFruit;
+    private final boolean[] movingBackwards;
+    private final boolean[] boardFull;
+    private final boolean[] done;
+    private final float[] rewards;
+
+    public BatchSimulation(int games, int width, int height, long[] seeds) {
+        this(games, width, height, seeds, ForkJoinPool.commonPool());
+    }
+
+    public BatchSimulation(int games, int width, int height, long[] seeds, ForkJoinPool pool) {
+        if (seeds.length < games) {
+            throw new IllegalArgumentException("Need one seed per game");
+        }
+        this.games = games;
+        this.width = width;
+        this.height = height;
+        this.stride = width + 3;
+        this.padded = this.stride * (height + 3);
+        this.area = width * height;
+        this.pool = pool;
+
+        this.headX = new int[games];
+        this.headY = new int[games];
+        this.direction = new byte[games];
+        this.length = new int[games];
+        this.bodyFirst = new int[games];
+        this.body = new int[games * this.padded];
+        this.counts = new short[games * this.padded];
+        this.freeCells = new int[games * this.area];
+        this.freePositions = new int[games * this.area];
+        this.freeSize = new int[games];
+        this.fruitType = new byte[games];
+        this.fruitCell = new int[games];
+        this.tick = new long[games];
+        this.appleCounter = new int[games];
+        this.randomState = new long[games];
+        this.grow = new boolean[games];
+        this.hasSpawnedFirstFruit = new boolean[games];
+        this.movingBackwards = new boolean[games];
+        this.boardFull = new boolean[games];
+        this.done = new boolean[games];
+        this.rewards = new float[games];
+
+        for (int g = 0; g < games; g++) {
+            reset(g, seeds[g]);
+        }
+    }
+
+    /**
+     * Starts game g over, exactly as {@code new GameEngine(width, height, seed)}.
+     */
+    public void reset(int g, long seed) {
+        int freeBase = g * this.area;
+        for (int i = 0; i < this.area; i++) {
+            this.freeCells[freeBase + i] = i;
+            this.freePositions[freeBase + i] = i;
+        }
+        this.freeSize[g] = this.area;
+        Arrays.fill(this.counts, g * this.padded, (g + 1) * this.padded, (short) 0);
+
+        this.randomState[g] = seed;
+        this.tick[g] = 0;
+        this.appleCounter[g] = 0;
+        this.grow[g] = false;
+        this.hasSpawnedFirstFruit[g] = false;
+        this.movingBackwards[g] = false;
+        this.boardFull[g] = false;
+        this.done[g] = false;
+        this.rewards[g] = 0;
+        this.direction[g] = (byte) DOWN;
+        this.headX[g] = this.width / 2;
+        this.headY[g] = this.height / 2;
+        this.length[g] = 0;
+        this.bodyFirst[g] = 0;
+        addHead(g, this.headX[g], this.headY[g]);
+        this.fruitType[g] = NO_FRUIT;
+        this.fruitCell[g] = -1;
+        spawnFruit(g);
+    }
+
+    /**
+     * Advances every running game by one tick. {@code actions[g]} is the
+     * direction ordinal for game g or {@link #NO_ACTION}. Rewards and done
+     * flags for this tick are then in {@link #getRewards()} and
+     * {@link #getDone()}.
+     */
+    public void step(byte[] actions) {
+        if (actions.length < this.games) {
+            throw new IllegalArgumentException("Need one action per game");
+        }
+        if (this.games <= GAMES_PER_TASK) {
+            stepRange(actions, 0, this.games);
+        } else {
+            this.pool.invoke(new StepTask(actions, 0, this.games));
+        }
+    }
+
+    public int getGames() {
+        return this.games;
+    }
+
+    public int getWidth() {
+        return this.width;
+    }
+
+    public int getHeight() {
+        return this.height;
+    }
+
+    // The arrays below are live state; treat them as read-only.
+
+    public float[] getRewards() {
+        return this.rewards;
+    }
+
+    public boolean[] getDone() {
+        return this.done;
+    }
+
+    public int[] getHeadX() {
+        return this.headX;
+    }
+
+    public int[] getHeadY() {
+        return this.headY;
+    }
+
+    public byte[] getDirections() {
+        return this.direction;
+    }
+
+    public int[] getLengths() {
+        return this.length;
+    }
+
+    public int[] getAppleCounters() {
+        return this.appleCounter;
+    }
+
+    public long[] getTicks() {
+        return this.tick;
+    }
+
+    /** Fruit type ordinal per game, or {@link #NO_FRUIT}. */
+    public byte[] getFruitTypes() {
+        return this.fruitType;
+    }
+
+    /** Fruit cell per game as y * width + x, or -1. */
+    public int[] getFruitCells() {
+        return this.fruitCell;
+    }
+
+    public boolean isBoardFull(int g) {
+        return this.boardFull[g];
+    }
+
+    public boolean isMovingBackwards(int g) {
+        return this.movingBackwards[g];
+    }
+
+    public int getBodyX(int g, int index) {
+        return bodyCell(g, index) % this.stride - 1;
+    }
+
+    public int getBodyY(int g, int index) {
+        return bodyCell(g, index) / this.stride - 1;
+    }
+
+    private int bodyCell(int g, int index) {
+        if (index < 0 || index >= this.length[g]) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.length[g]);
+        }
+        return this.body[g * this.padded + (this.bodyFirst[g] + index) % this.padded];
+    }
+
+    private void stepRange(byte[] actions, int from, int to) {
+        for (int g = from; g < to; g++) {
+            this.rewards[g] = 0;
+            if (this.done[g]) {
+                continue;
+            }
+            stepGame(g, actions[g]);
+        }
+    }
+
+    private void stepGame(int g, int action) {
+        this.tick[g]++;
+        if (action >= 0) {
+            setDirection(g, action);
+        }
+        move(g);
+
+        if (this.fruitType[g] == APPLE && isFruitEaten(g)) {
+            this.appleCounter[g]++;
+            this.hasSpawnedFirstFruit[g] = true;
+            this.grow[g] = true;
+            this.rewards[g] += 1;
+            spawnFruit(g);
+        } else if (this.fruitType[g] == ORANGE && isFruitEaten(g)) {
+            if (this.length[g] > 3) {
+                this.grow[g] = false;
+                removeTail(g);
+                this.rewards[g] -= 1;
+            }
+            spawnFruit(g);
+        } else if (this.fruitType[g] == MUSHROOM && isFruitEaten(g)) {
+            if (this.length[g] > 3) {
+                this.direction[g] = (byte) opposite(this.direction[g]);
+                move(g);
+                this.movingBackwards[g] = true;
+            }
+            spawnFruit(g);
+        } else if (this.counts[g * this.padded + paddedIndex(this.headX[g], this.headY[g])] > 1) {
+            this.done[g] = true;
+        } else if (this.headX[g] == this.width + 1 || this.headX[g] == -1) {
+            this.done[g] = true;
+        } else if (this.headY[g] == this.height + 1 || this.headY[g] == -1) {
+            this.done[g] = true;
+        }
+        if (this.done[g] && !this.boardFull[g]) {
+            this.rewards[g] -= 1;
+        }
+    }
+
+    private void setDirection(int g, int newDirection) {
+        if (newDirection != opposite(this.direction[g])) {
+            this.direction[g] = (byte) newDirection;
+        }
+    }
+
+    private static int opposite(int d) {
+        if (d == UP) return DOWN;
+        if (d == DOWN) return UP;
+        if (d == LEFT) return RIGHT;
+        return LEFT;
+    }
+
+    private void move(int g) {
+        int d = this.direction[g];
+        if (d == UP) {
+            this.headY[g]--;
+        } else if (d == DOWN) {
+            this.headY[g]++;
+        } else if (d == LEFT) {
+            this.headX[g]--;
+        } else if (d == RIGHT) {
+            this.headX[g]++;
+        }
+        addHead(g, this.headX[g], this.headY[g]);
+        if (this.length[g] > 3 && !this.grow[g]) {
+            removeTail(g);
+        }
+        this.grow[g] = false;
+    }
+
+    private boolean isFruitEaten(int g) {
+        int cell = this.fruitCell[g];
+        int x = cell % this.width;
+        int y = cell / this.width;
+        return this.counts[g * this.padded + paddedIndex(x, y)] > 0;
+    }
+
+    private void addHead(int g, int x, int y) {
+        int p = paddedIndex(x, y);
+        this.body[g * this.padded + (this.bodyFirst[g] + this.length[g]) % this.padded] = p;
+        this.length[g]++;
+        if (this.counts[g * this.padded + p]++ == 0) {
+            removeFree(g, x, y);
+        }
+    }
+
+    private void removeTail(int g) {
+        int p = this.body[g * this.padded + this.bodyFirst[g]];
+        this.bodyFirst[g] = (this.bodyFirst[g] + 1) % this.padded;
+        this.length[g]--;
+        if (--this.counts[g * this.padded + p] == 0) {
+            addFree(g, p % this.stride - 1, p / this.stride - 1);
+        }
+    }
+
+    private void spawnFruit(int g) {
+        byte type;
+        if (!this.hasSpawnedFirstFruit[g]) {
+            this.hasSpawnedFirstFruit[g] = true;
+            type = APPLE;
+        } else {
+            int available = this.length[g] > 3 ? 3 : 2;
+            int pick = GameRandom.nextInt(this.randomState, g, available);
+            type = pick == 0 ? APPLE : pick == 1 ? MUSHROOM : ORANGE;
+        }
+
+        int cell = this.freeSize[g] == 0 ? -1
+                : this.freeCells[g * this.area + GameRandom.nextInt(this.randomState, g, this.freeSize[g])];
+        if (this.fruitType[g] != NO_FRUIT) {
+            int old = this.fruitCell[g];
+            int x = old % this.width;
+            int y = old / this.width;
+            if (this.counts[g * this.padded + paddedIndex(x, y)] == 0) {
+                addFree(g, x, y);
+            }
+        }
+        this.fruitType[g] = NO_FRUIT;
+        this.fruitCell[g] = -1;
+
+        if (cell < 0) {
+            this.boardFull[g] = true;
+            this.done[g] = true;
+            return;
+        }
+        this.fruitType[g] = type;
+        this.fruitCell[g] = cell;
+        removeFree(g, cell % this.width, cell / this.width);
+    }
+
+    private void addFree(int g, int x, int y) {
+        if (x < 0 || y < 0 || x >= this.width || y >= this.height) {
+            return;
+        }
+        int base = g * this.area;
+        int cell = y * this.width + x;
+        if (this.freePositions[base + cell] >= 0) {
+            return;
+        }
+        int size = this.freeSize[g];
+        this.freeCells[base + size] = cell;
+        this.freePositions[base + cell] = size;
+        this.freeSize[g] = size + 1;
+    }
+
+    private void removeFree(int g, int x, int y) {
+        if (x < 0 || y < 0 || x >= this.width || y >= this.height) {
+            return;
+        }
+        int base = g * this.area;
+        int cell = y * this.width + x;
+        int position = this.freePositions[base + cell];
+        if (position < 0) {
+            return;
+        }
+        int last = this.freeCells[base + --this.freeSize[g]];
+        this.freeCells[base + position] = last;
+        this.freePositions[base + last] = position;
+        this.freePositions[base + cell] = -1;
+    }
+
+    private int paddedIndex(int x, int y) {
+        return (y + 1) * this.stride + (x + 1);
+    }
+
+    private class StepTask extends RecursiveAction {
+
+        private final byte[] actions;
+        private final int from;
+        private final int to;
+
+        StepTask(byte[] actions, int from, int to) {
+            this.actions = actions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= GAMES_PER_TASK) {
+                stepRange(this.actions, this.from, this.to);
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new StepTask(this.actions, this.from, middle),
+                    new StepTask(this.actions, middle, this.to));
+        }
+    }
+}
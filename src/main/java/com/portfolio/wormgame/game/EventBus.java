@@ -0,0 +1,116 @@
+package com.portfolio.wormgame.game;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Single-producer event stream over a preallocated ring. The tick thread
+ * publishes without ever waiting; each subscriber keeps its own cursor and
+ * drains events in batches on its own thread. A subscriber that falls more
+ * than one ring behind loses the overwritten events and is told how many.
+ *
+ * Every slot carries the sequence it was last written for, set to -1 while
+ * it is being rewritten, so a reader can tell a stale or half-written slot
+ * from a good one without locking.
+ */
+public class EventBus {
+
+    private static final GameEventType[] TYPES = GameEventType.values();
+    private static final int STAMP = 0;
+    private static final int HEADER = 1;
+    private static final int VALUE = 2;
+    private static final int SLOT_WIDTH = 3;
+
+    private final int mask;
+    private final AtomicLongArray slots;
+    private final AtomicLong published = new AtomicLong();
+
+    public EventBus(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicLongArray(size * SLOT_WIDTH);
+        for (int i = 0; i < size; i++) {
+            this.slots.set(i * SLOT_WIDTH + STAMP, -1);
+        }
+    }
+
+    public int capacity() {
+        return this.mask + 1;
+    }
+
+    /** Number of events published so far. */
+    public long getPublished() {
+        return this.published.get();
+    }
+
+    /**
+     * Appends an event; only the engine's tick thread may call this.
+     */
+    void publish(GameEventType type, long tick, long value) {
+        long sequence = this.published.get();
+        int base = ((int) sequence & this.mask) * SLOT_WIDTH;
+        this.slots.set(base + STAMP, -1);
+        this.slots.set(base + HEADER, (tick << 3) | type.ordinal());
+        this.slots.set(base + VALUE, value);
+        this.slots.set(base + STAMP, sequence);
+        this.published.set(sequence + 1);
+    }
+
+    /**
+     * Starts a subscription at the next event to be published.
+     */
+    public Subscription subscribe() {
+        return new Subscription(this.published.get());
+    }
+
+    /**
+     * One consumer's position in the stream. Not thread-safe; each consumer
+     * thread takes its own.
+     */
+    public class Subscription {
+
+        private long cursor;
+        private long lost;
+
+        private Subscription(long cursor) {
+            this.cursor = cursor;
+        }
+
+        /** Events overwritten before this subscriber got to them. */
+        public long getLost() {
+            return this.lost;
+        }
+
+        /** Events published but not yet drained. */
+        public long getBacklog() {
+            return Math.min(published.get() - this.cursor, capacity());
+        }
+
+        /**
+         * Hands up to {@code maxBatch} pending events to the handler, oldest
+         * first, and returns how many were delivered.
+         */
+        public int poll(GameEventHandler handler, int maxBatch) {
+            long available = published.get();
+            if (available - this.cursor > capacity()) {
+                this.lost += available - capacity() - this.cursor;
+                this.cursor = available - capacity();
+            }
+            long end = Math.min(available, this.cursor + maxBatch);
+            int delivered = 0;
+            for (long sequence = this.cursor; sequence < end; sequence++) {
+                int base = ((int) sequence & mask) * SLOT_WIDTH;
+                long header = slots.get(base + HEADER);
+                long value = slots.get(base + VALUE);
+                if (slots.get(base + STAMP) != sequence) {
+                    this.lost++;
+                    continue;
+                }
+                handler.onEvent(TYPES[(int) (header & 7)], header >>> 3, value, sequence == end - 1);
+                delivered++;
+            }
+            this.cursor = end;
+            return delivered;
+        }
+    }
+}
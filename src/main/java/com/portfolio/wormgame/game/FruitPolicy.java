@@ -0,0 +1,57 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.domain.FruitType;
+
+/**
+ * How a {@link GameEngine} keeps fruit on the board. The classic policy
+ * is the original game: one fruit at a time, the first always an apple,
+ * and every eaten fruit replaced by a random type. A target policy instead
+ * keeps a fixed number of each type on the board and replaces an eaten
+ * fruit with one of the same type.
+ */
+public final class FruitPolicy {
+
+    private static final FruitPolicy CLASSIC = new FruitPolicy(null);
+
+    private final int[] targets;
+
+    private FruitPolicy(int[] targets) {
+        this.targets = targets;
+    }
+
+    public static FruitPolicy classic() {
+        return CLASSIC;
+    }
+
+    public static FruitPolicy targets(int apples, int oranges, int mushrooms) {
+        if (apples < 0 || oranges < 0 || mushrooms < 0) {
+            throw new IllegalArgumentException("Fruit targets must not be negative");
+        }
+        int[] targets = new int[FruitType.values().length];
+        targets[FruitType.APPLE.ordinal()] = apples;
+        targets[FruitType.ORANGE.ordinal()] = oranges;
+        targets[FruitType.MUSHROOM.ordinal()] = mushrooms;
+        return new FruitPolicy(targets);
+    }
+
+    public boolean isClassic() {
+        return this.targets == null;
+    }
+
+    /** Fruits of the type to keep on the board; 0 under the classic policy. */
+    public int getTarget(FruitType type) {
+        return this.targets == null ? 0 : this.targets[type.ordinal()];
+    }
+
+    /** Most fruits on the board at once. */
+    public int getTotal() {
+        if (this.targets == null) {
+            return 1;
+        }
+        int total = 0;
+        for (FruitType type : FruitType.values()) {
+            total += getTarget(type);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,518 @@
+package com.portfolio.wormgame.game;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.portfolio.wormgame.Direction;
+import com.portfolio.wormgame.domain.Worm;
+import com.portfolio.wormgame.domain.Apple;
+import com.portfolio.wormgame.domain.Orange;
+import com.portfolio.wormgame.domain.Mushroom;
+import com.portfolio.wormgame.domain.FruitType; 
+import com.portfolio.wormgame.domain.FruitStore;
+import com.portfolio.wormgame.domain.Occupancy;
+import com.portfolio.wormgame.domain.OccupancyGrid;
+import com.portfolio.wormgame.domain.ChunkedOccupancy;
+import com.portfolio.wormgame.domain.Piece;
+import com.portfolio.wormgame.domain.WormBody;
+
+/**
+ * Headless simulation core of the game. Holds the full game state and
+ * advances it one tick per {@link #step(Direction)} call; it has no
+ * notion of time, threads or rendering, so any driver can run it.
+ *
+ * Fruits live in a {@link FruitStore} indexed by cell, so finding the
+ * fruit under the head is one lookup however many there are; how many of
+ * each type stay on the board is set by the {@link FruitPolicy}. The Apple,
+ * Orange and Mushroom objects handed out by the getters are created on
+ * demand, so a steady-state tick allocates nothing.
+ *
+ * Boards above {@link #DENSE_CELL_LIMIT} cells are tracked with a sparse
+ * {@link ChunkedOccupancy} instead of a dense grid.
+ */
+public class GameEngine {
+
+    static final long NO_FRUIT = Long.MIN_VALUE;
+    private static final FruitType[] FRUIT_TYPES = FruitType.values();
+    private static final int PRESIZED_BODY = 4096;
+    private static final int INPUT_CAPACITY = 16;
+    private static final int EVENT_CAPACITY = 1024;
+    static final long DENSE_CELL_LIMIT = 1 << 20;
+
+    private int width;
+    private int height;
+    private int appleCounter;
+    private long tick;
+
+    private boolean continues;
+    private boolean boardFull;
+    private Worm worm;
+    private Occupancy grid;
+    private final FruitPolicy fruitPolicy;
+    private final FruitStore fruits;
+    private final Piece[] fruitPieces = new Piece[FRUIT_TYPES.length];
+    private boolean isMovingBackwards = false;
+    private long seed;
+    private final GameRandom random;
+    private final InputJournal journal = new InputJournal();
+    private final InputQueue inputs = new InputQueue(INPUT_CAPACITY);
+    private final SnapshotPublisher snapshots;
+    private final EventBus events = new EventBus(EVENT_CAPACITY);
+    private boolean hasSpawnedFirstFruit = false;
+    private FruitType fruitType;
+    
+    public GameEngine(int width, int height) {
+        this(width, height, ThreadLocalRandom.current().nextLong());
+    }
+
+    public GameEngine(int width, int height, long seed) {
+        this(width, height, seed, FruitPolicy.classic());
+    }
+
+    public GameEngine(int width, int height, long seed, FruitPolicy fruitPolicy) {
+        this.seed = seed;
+        this.fruitPolicy = fruitPolicy;
+        this.fruits = new FruitStore(fruitPolicy.getTotal());
+        this.random = new GameRandom(seed);
+        this.appleCounter = 0;
+        this.width = width;
+        this.height = height;
+        this.continues = true;
+        this.grid = (long) width * height > DENSE_CELL_LIMIT
+                ? new ChunkedOccupancy(this.width, this.height)
+                : new OccupancyGrid(this.width, this.height);
+        this.worm = new Worm(this.width/2, this.height/2, Direction.DOWN, this.grid);
+        int bodyCapacity = (int) Math.min(PRESIZED_BODY, (width + 3L) * (height + 3L));
+        this.worm.getBody().ensureCapacity(bodyCapacity);
+        this.snapshots = new SnapshotPublisher(bodyCapacity);
+
+        if (fruitPolicy.isClassic()) {
+            spawnFruit();
+        } else {
+            for (FruitType type : FRUIT_TYPES) {
+                replenish(type);
+            }
+        }
+        this.snapshots.publish(this);
+    }
+
+    public boolean continues() {
+        return continues;
+    }
+
+    public boolean isBoardFull() {
+        return boardFull;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getAppleCounter() {
+        return appleCounter;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Inputs consumed so far, keyed by the tick they were applied on.
+     */
+    public InputJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * The state as of the last tick, safe to read from any thread while the
+     * game keeps running; close it when done. See {@link SnapshotPublisher}.
+     */
+    public StateSnapshot acquireSnapshot() {
+        return this.snapshots.acquire();
+    }
+
+    /**
+     * Apples, shrinks, reversals and deaths as they happen; subscribe to
+     * consume them from another thread.
+     */
+    public EventBus getEvents() {
+        return this.events;
+    }
+
+    /**
+     * Queues a direction from any thread without locking. {@link #step()}
+     * applies at most one queued turn per tick, so two quick presses land
+     * on consecutive ticks instead of overwriting each other. Returns false
+     * if the queue is full and the input was dropped.
+     */
+    public boolean submitInput(Direction direction) {
+        return this.inputs.offer(direction);
+    }
+
+    /**
+     * Advances the game by one tick, applying the next queued turn.
+     */
+    public boolean step() {
+        return step(nextInput());
+    }
+
+    /**
+     * Skips queued inputs the worm would ignore anyway (its own direction
+     * or the reverse) so they do not use up a tick.
+     */
+    private Direction nextInput() {
+        // UP, RIGHT, DOWN, LEFT: the reverse is two ordinals away
+        int current = this.worm.getDirection().ordinal();
+        Direction input;
+        while ((input = this.inputs.poll()) != null) {
+            if (input.ordinal() != current && input.ordinal() != (current ^ 2)) {
+                return input;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Applies the given input (null for none) and advances the game by one
+     * tick. Returns whether the game still continues afterwards.
+     */
+    public boolean step(Direction input) {
+        if (!continues) {
+            return false;
+        }
+        this.tick++;
+        if (input != null) {
+            this.journal.append(this.tick, input);
+            this.worm.setDirection(input);
+        }
+        this.worm.move();
+        
+        FruitType eaten = eatFruitAtHead();
+        if (eaten == FruitType.APPLE) {
+            appleEffect();
+        } else if (eaten == FruitType.ORANGE) {
+            orangeEffect(); 
+        } else if (eaten == FruitType.MUSHROOM) {
+            mushroomEffect();
+        } else if (this.worm.runsIntoItself()) {
+            die();
+        // GAME WALLS:
+        } else if (this.worm.getHeadX() == this.width+1 || this.worm.getHeadX() == -1) {
+            die();
+        } else if (this.worm.getHeadY() == this.height+1 || this.worm.getHeadY() == -1) {
+            die();
+        }
+        this.snapshots.publish(this);
+        return continues;
+    }
+
+    private void die() {
+        this.continues = false;
+        this.events.publish(GameEventType.DIED, this.tick, this.worm.getLength());
+    }
+
+    private FruitType eatFruitAtHead() {
+        int x = this.worm.getHeadX();
+        int y = this.worm.getHeadY();
+        FruitType type = this.fruits.remove(x, y);
+        if (type != null) {
+            this.grid.release(x, y);
+        }
+        return type;
+    }
+
+    GameRandom getRandom() {
+        return random;
+    }
+
+    boolean hasSpawnedFirstFruit() {
+        return hasSpawnedFirstFruit;
+    }
+
+    public FruitPolicy getFruitPolicy() {
+        return fruitPolicy;
+    }
+
+    /**
+     * All fruits on the board. Read it from the tick thread only; other
+     * threads should use {@link #acquireSnapshot()}.
+     */
+    public FruitStore getFruits() {
+        return fruits;
+    }
+
+    /**
+     * Packed cell of the first fruit of the given type, or {@link #NO_FRUIT}.
+     */
+    long getFruitCell(FruitType type) {
+        return this.fruits.count(type) > 0 ? this.fruits.cell(type, 0) : NO_FRUIT;
+    }
+
+    /**
+     * Overwrites the whole game state; used by {@link GameSnapshotCodec}.
+     * The journal is cleared since it described the previous timeline.
+     */
+    void restore(long seed, long randomState, long tick, int appleCounter, boolean continues,
+            boolean boardFull, boolean isMovingBackwards, boolean hasSpawnedFirstFruit,
+            long appleCell, long orangeCell, long mushroomCell) {
+        this.seed = seed;
+        this.random.setState(randomState);
+        this.tick = tick;
+        this.appleCounter = appleCounter;
+        this.continues = continues;
+        this.boardFull = boardFull;
+        this.isMovingBackwards = isMovingBackwards;
+        this.hasSpawnedFirstFruit = hasSpawnedFirstFruit;
+        this.inputs.clear();
+        this.journal.clear();
+        clearFruits();
+        placeFruit(appleCell, FruitType.APPLE);
+        placeFruit(orangeCell, FruitType.ORANGE);
+        placeFruit(mushroomCell, FruitType.MUSHROOM);
+        this.snapshots.publish(this);
+    }
+
+    /**
+     * Re-simulates a game from its seed and journal up to the given tick,
+     * or until it ends. The result matches the recorded game exactly as
+     * long as nothing outside step() changed it.
+     */
+    public static GameEngine replay(int width, int height, long seed, InputJournal journal, long untilTick) {
+        return replay(width, height, seed, FruitPolicy.classic(), journal, untilTick);
+    }
+
+    /** Replays a game that was played under the given fruit policy. */
+    public static GameEngine replay(int width, int height, long seed, FruitPolicy fruitPolicy,
+            InputJournal journal, long untilTick) {
+        GameEngine engine = new GameEngine(width, height, seed, fruitPolicy);
+        int next = 0;
+        while (engine.continues() && engine.getTick() < untilTick) {
+            Direction input = null;
+            if (next < journal.size() && journal.getTick(next) == engine.getTick() + 1) {
+                input = journal.getDirection(next++);
+            }
+            engine.step(input);
+        }
+        return engine;
+    }
+
+    public void appleEffect() {
+        this.appleCounter++;
+        this.hasSpawnedFirstFruit = true;
+        this.worm.grow();
+        this.events.publish(GameEventType.APPLE_EATEN, this.tick, this.appleCounter);
+        spawnFruit(FruitType.APPLE);        
+    }
+    
+    public void orangeEffect() {
+        if (this.worm.getLength() > 3) {
+            this.worm.shrink();     
+            this.events.publish(GameEventType.SHRUNK, this.tick, this.worm.getLength());
+        }
+        spawnFruit(FruitType.ORANGE);     
+    }
+    public boolean isMovingBackwards() {
+        return this.isMovingBackwards;
+    }
+    
+    public void mushroomEffect() {
+        if (this.worm.getLength() > 3) {
+            this.worm.goBackwards(); 
+            this.isMovingBackwards = true;   
+            this.events.publish(GameEventType.REVERSED, this.tick, this.worm.getLength());
+        }
+        spawnFruit(FruitType.MUSHROOM); 
+    }
+
+    /**
+     * Replaces the current fruit as if it had just been eaten; used by
+     * benchmarks to time spawning on its own.
+     */
+    void respawnFruit() {
+        spawnFruit(FruitType.APPLE);
+    }
+
+    /**
+     * Picks a free cell the way fruit spawning does, with the caller's
+     * generator so the game itself is left untouched; used by benchmarks.
+     */
+    long probeFreeCell(Random random) {
+        return this.grid.randomFreeCell(random);
+    }
+
+    private void spawnFruit(FruitType eaten) {
+        if (this.fruitPolicy.isClassic()) {
+            spawnFruit();
+        } else {
+            replenish(eaten);
+        }
+    }
+
+    /**
+     * Tops the given type back up to its target. The game only ends for
+     * lack of room once no fruit at all is left to eat.
+     */
+    private void replenish(FruitType type) {
+        while (this.fruits.count(type) < this.fruitPolicy.getTarget(type)) {
+            long cell = this.grid.randomFreeCell(this.random);
+            if (cell == Occupancy.NO_CELL) {
+                if (this.fruits.isEmpty()) {
+                    this.boardFull = true;
+                    this.continues = false;
+                    this.events.publish(GameEventType.BOARD_FULL, this.tick, this.worm.getLength());
+                }
+                return;
+            }
+            placeFruit(cell, type);
+        }
+    }
+
+    private void spawnFruit() {
+        this.fruitType = determineFruitType();
+        spawnFruitByType();
+    }
+
+
+    private FruitType determineFruitType() {
+        if (!this.hasSpawnedFirstFruit) {
+            this.hasSpawnedFirstFruit = true;
+            return FruitType.APPLE;
+        }
+        return getRandomFruitType();
+    }
+
+    private FruitType getRandomFruitType() {
+        // APPLE, MUSHROOM and, once the worm can shrink, ORANGE
+        int available = this.worm.getLength() > 3 ? 3 : 2;
+        switch (random.nextInt(available)) {
+            case 0: return FruitType.APPLE;
+            case 1: return FruitType.MUSHROOM;
+            default: return FruitType.ORANGE;
+        }
+    }
+
+    private void spawnFruitByType() {
+        long cell = this.grid.randomFreeCell(this.random);
+        clearFruits();
+
+        if (cell == Occupancy.NO_CELL) {
+            this.boardFull = true;
+            this.continues = false;
+            this.events.publish(GameEventType.BOARD_FULL, this.tick, this.worm.getLength());
+            return;
+        }
+        placeFruit(cell, this.fruitType);
+    }
+
+    private void clearFruits() {
+        for (FruitType type : FRUIT_TYPES) {
+            for (int i = 0; i < this.fruits.count(type); i++) {
+                long cell = this.fruits.cell(type, i);
+                this.grid.release(WormBody.unpackX(cell), WormBody.unpackY(cell));
+            }
+        }
+        this.fruits.clear();
+    }
+
+    private void placeFruit(long cell, FruitType type) {
+        if (cell != NO_FRUIT) {
+            int x = WormBody.unpackX(cell);
+            int y = WormBody.unpackY(cell);
+            if (this.fruits.add(x, y, type)) {
+                this.grid.reserve(x, y);
+            }
+        }
+    }
+
+    private void removeFruit(long cell) {
+        if (cell != NO_FRUIT) {
+            int x = WormBody.unpackX(cell);
+            int y = WormBody.unpackY(cell);
+            if (this.fruits.remove(x, y) != null) {
+                this.grid.release(x, y);
+            }
+        }
+    }
+
+    private Piece getFruit(FruitType type) {
+        long cell = getFruitCell(type);
+        if (cell == NO_FRUIT) {
+            return null;
+        }
+        int x = WormBody.unpackX(cell);
+        int y = WormBody.unpackY(cell);
+        Piece piece = this.fruitPieces[type.ordinal()];
+        if (piece == null || piece.getX() != x || piece.getY() != y) {
+            switch (type) {
+                case APPLE: piece = new Apple(x, y); break;
+                case ORANGE: piece = new Orange(x, y); break;
+                default: piece = new Mushroom(x, y); break;
+            }
+            this.fruitPieces[type.ordinal()] = piece;
+        }
+        return piece;
+    }
+
+    private void setFruit(FruitType type, Piece fruit) {
+        removeFruit(getFruitCell(type));
+        if (fruit != null) {
+            long cell = WormBody.pack(fruit.getX(), fruit.getY());
+            removeFruit(cell);
+            placeFruit(cell, type);
+        }
+        this.fruitPieces[type.ordinal()] = fruit;
+    }
+
+    public Worm getWorm() {
+        return this.worm;
+    }
+    
+    /**
+     * Swaps in another worm and rebuilds the occupancy around it, so fruit
+     * never spawns under the new body.
+     */
+    public void setWorm(Worm worm) {
+        this.worm.setOccupancy(null);
+        this.worm = worm;
+        this.grid.clear();
+        worm.setOccupancy(this.grid);
+        for (FruitType type : FRUIT_TYPES) {
+            for (int i = 0; i < this.fruits.count(type); i++) {
+                long cell = this.fruits.cell(type, i);
+                this.grid.reserve(WormBody.unpackX(cell), WormBody.unpackY(cell));
+            }
+        }
+    }
+    
+    public Apple getApple() {
+        return (Apple) getFruit(FruitType.APPLE);
+    }
+    
+    public void setApple(Apple apple) {
+        setFruit(FruitType.APPLE, apple);
+    }
+    
+    public Orange getOrange() {
+        return (Orange) getFruit(FruitType.ORANGE);
+    }
+    
+    public void setOrange(Orange orange) {
+        setFruit(FruitType.ORANGE, orange);
+    }
+    
+    public void setMushroom(Mushroom mushroom) {
+        setFruit(FruitType.MUSHROOM, mushroom);
+    }
+    
+    public Mushroom getMushroom() {
+        return (Mushroom) getFruit(FruitType.MUSHROOM);
+    }
+}
@@ -0,0 +1,10 @@
+package com.portfolio.wormgame.game;
+
+/**
+ * Receives events drained from an {@link EventBus.Subscription}; the
+ * arguments are primitives so delivering an event allocates nothing.
+ */
+public interface GameEventHandler {
+
+    void onEvent(GameEventType type, long tick, long value, boolean endOfBatch);
+}
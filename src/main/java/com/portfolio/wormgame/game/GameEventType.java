@@ -0,0 +1,18 @@
+package com.portfolio.wormgame.game;
+
+/**
+ * Outcomes a {@link GameEngine} reports on its {@link EventBus}. The value
+ * passed along with each event is noted per constant.
+ */
+public enum GameEventType {
+    /** Value: apples eaten so far. */
+    APPLE_EATEN,
+    /** An orange took a piece off the worm. Value: new length. */
+    SHRUNK,
+    /** A mushroom turned the worm around. Value: length. */
+    REVERSED,
+    /** The worm hit a wall or itself. Value: length. */
+    DIED,
+    /** No free cell was left for the next fruit. Value: length. */
+    BOARD_FULL;
+}
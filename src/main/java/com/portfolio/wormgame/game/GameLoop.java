@@ -0,0 +1,95 @@
+package com.portfolio.wormgame.game;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Fixed-timestep scheduler running on its own thread. Ticks are scheduled
+ * against absolute deadlines so delays do not accumulate; when the loop
+ * falls behind it runs up to {@code maxCatchUp} ticks back to back and
+ * drops the rest of the backlog.
+ */
+public class GameLoop {
+
+    private static final int DEFAULT_MAX_CATCH_UP = 5;
+
+    private final LongSupplier periodNanos;
+    private final Runnable tick;
+    private final LoopMetrics metrics = new LoopMetrics();
+    private final int maxCatchUp;
+    private final String name;
+    private volatile boolean running;
+    private Thread thread;
+
+    public GameLoop(String name, LongSupplier periodNanos, Runnable tick) {
+        this(name, periodNanos, tick, DEFAULT_MAX_CATCH_UP);
+    }
+
+    public GameLoop(String name, LongSupplier periodNanos, Runnable tick, int maxCatchUp) {
+        this.name = name;
+        this.periodNanos = periodNanos;
+        this.tick = tick;
+        this.maxCatchUp = maxCatchUp;
+    }
+
+    public LoopMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    public synchronized void start(long initialDelayNanos) {
+        if (this.running) {
+            return;
+        }
+        this.running = true;
+        this.thread = new Thread(() -> run(initialDelayNanos), this.name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public synchronized void stop() {
+        if (!this.running) {
+            return;
+        }
+        this.running = false;
+        LockSupport.unpark(this.thread);
+        if (this.thread != Thread.currentThread()) {
+            try {
+                this.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        this.thread = null;
+    }
+
+    private void run(long initialDelayNanos) {
+        long deadline = System.nanoTime() + initialDelayNanos;
+        while (this.running) {
+            long now = System.nanoTime();
+            if (now < deadline) {
+                LockSupport.parkNanos(deadline - now);
+                continue;
+            }
+            int executed = 0;
+            while (this.running && now >= deadline && executed < this.maxCatchUp) {
+                long budget = this.periodNanos.getAsLong();
+                boolean late = now - deadline >= budget;
+                long start = System.nanoTime();
+                this.tick.run();
+                now = System.nanoTime();
+                this.metrics.recordTick(now - start, budget, late);
+                deadline += budget;
+                executed++;
+            }
+            if (now >= deadline) {
+                long budget = Math.max(1, this.periodNanos.getAsLong());
+                this.metrics.recordDropped((now - deadline) / budget + 1);
+                deadline = now + budget;
+            }
+        }
+    }
+}
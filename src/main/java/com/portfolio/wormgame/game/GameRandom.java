@@ -0,0 +1,80 @@
+package com.portfolio.wormgame.game;
+
+import java.util.Random;
+
+/**
+ * Seeded SplitMix64 generator whose whole state is one long, so a game's
+ * random stream can be reproduced from its seed and saved or restored at
+ * any point. Drop-in for {@link Random}; not thread-safe.
+ *
+ * The static helpers step a state held elsewhere, such as a slot of a
+ * long array, and produce exactly the same stream.
+ */
+public class GameRandom extends Random {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // no initializer: Random's constructor calls setSeed before it would run
+    private long[] state;
+
+    public GameRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        if (this.state == null) {
+            this.state = new long[1];
+        }
+        this.state[0] = seed;
+    }
+
+    public long getState() {
+        return this.state[0];
+    }
+
+    public void setState(long state) {
+        this.state[0] = state;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong(this.state, 0) >>> (64 - bits));
+    }
+
+    @Override
+    public long nextLong() {
+        return nextLong(this.state, 0);
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return nextInt(this.state, 0, bound);
+    }
+
+    public static long nextLong(long[] states, int index) {
+        long z = (states[index] += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Uniform int in [0, bound), drawn the same way as
+     * {@link Random#nextInt(int)}.
+     */
+    public static int nextInt(long[] states, int index, int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        int r = (int) (nextLong(states, index) >>> 33);
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return (int) ((bound * (long) r) >> 31);
+        }
+        for (int u = r; u - (r = u % bound) + m < 0; u = (int) (nextLong(states, index) >>> 33)) {
+            // reject values from the incomplete last range
+        }
+        return r;
+    }
+}
@@ -0,0 +1,50 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+
+/**
+ * One game hosted by a {@link SessionManager}. The engine is only ever
+ * stepped by the shard thread that owns the session; other threads hand
+ * in input through {@link #setDirection(Direction)}, or hand the worm to
+ * the shard's {@link Autopilot}.
+ */
+public class GameSession {
+
+    private final long id;
+    private final GameEngine engine;
+    private long deadline;
+    private volatile boolean autopilot;
+
+    GameSession(long id, GameEngine engine) {
+        this.id = id;
+        this.engine = engine;
+    }
+
+    public long getId() {
+        return this.id;
+    }
+
+    public GameEngine getEngine() {
+        return this.engine;
+    }
+
+    public void setDirection(Direction direction) {
+        this.engine.submitInput(direction);
+    }
+
+    public boolean isAutopilot() {
+        return this.autopilot;
+    }
+
+    public void setAutopilot(boolean autopilot) {
+        this.autopilot = autopilot;
+    }
+
+    long getDeadline() {
+        return this.deadline;
+    }
+
+    void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+}
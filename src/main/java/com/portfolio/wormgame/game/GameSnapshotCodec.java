@@ -0,0 +1,217 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import com.portfolio.wormgame.domain.FruitType;
+import com.portfolio.wormgame.domain.Worm;
+import com.portfolio.wormgame.domain.WormBody;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Versioned binary snapshot of a {@link GameEngine}: board size, seed and
+ * generator state, counters, flags, fruits and the worm body. The body is
+ * written as one absolute cell followed by 2-bit steps, four per byte,
+ * falling back to absolute cells if any two pieces are not adjacent.
+ *
+ * The input journal is not part of the snapshot, and only engines on the
+ * classic {@link FruitPolicy} can be encoded. A codec keeps its
+ * scratch buffer between calls, so reuse one per thread.
+ */
+public class GameSnapshotCodec {
+
+    public static final int MAGIC = 0x57524D53;
+    public static final byte VERSION = 1;
+    /** Largest board side a snapshot may declare. */
+    public static final int MAX_SIDE = 4096;
+
+    private static final int HEADER_BYTES = 4 + 1 + 4 + 4 + 8 + 8 + 8 + 4 + 1 + 1 + 1 + 3 * 8 + 1 + 4;
+    private static final byte BODY_STEPS = 0;
+    private static final byte BODY_CELLS = 1;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private long[] cells = new long[64];
+
+    public static int maxEncodedSize(GameEngine engine) {
+        return HEADER_BYTES + engine.getWorm().getLength() * 8;
+    }
+
+    public ByteBuffer encode(GameEngine engine, ByteBuffer out) {
+        if (!engine.getFruitPolicy().isClassic()) {
+            throw new IllegalArgumentException("Only classic single-fruit games can be encoded");
+        }
+        Worm worm = engine.getWorm();
+        WormBody body = worm.getBody();
+        int flags = (engine.continues() ? 1 : 0)
+                | (engine.isBoardFull() ? 2 : 0)
+                | (engine.isMovingBackwards() ? 4 : 0)
+                | (engine.hasSpawnedFirstFruit() ? 8 : 0)
+                | (worm.isGrowing() ? 16 : 0);
+
+        out.putInt(MAGIC);
+        out.put(VERSION);
+        out.putInt(engine.getWidth());
+        out.putInt(engine.getHeight());
+        out.putLong(engine.getSeed());
+        out.putLong(engine.getRandom().getState());
+        out.putLong(engine.getTick());
+        out.putInt(engine.getAppleCounter());
+        out.put((byte) flags);
+        out.put((byte) worm.getDirection().ordinal());
+        long appleCell = engine.getFruitCell(FruitType.APPLE);
+        long orangeCell = engine.getFruitCell(FruitType.ORANGE);
+        long mushroomCell = engine.getFruitCell(FruitType.MUSHROOM);
+        int fruits = (appleCell != GameEngine.NO_FRUIT ? 1 : 0)
+                | (orangeCell != GameEngine.NO_FRUIT ? 2 : 0)
+                | (mushroomCell != GameEngine.NO_FRUIT ? 4 : 0);
+        out.put((byte) fruits);
+        putFruit(out, appleCell);
+        putFruit(out, orangeCell);
+        putFruit(out, mushroomCell);
+
+        int length = body.size();
+        boolean adjacent = true;
+        for (int i = 1; i < length && adjacent; i++) {
+            adjacent = stepBetween(body.get(i - 1), body.get(i)) >= 0;
+        }
+        out.put(adjacent ? BODY_STEPS : BODY_CELLS);
+        out.putInt(length);
+        if (adjacent) {
+            out.putInt(body.getX(0));
+            out.putInt(body.getY(0));
+            int packed = 0;
+            for (int i = 1; i < length; i++) {
+                packed |= stepBetween(body.get(i - 1), body.get(i)) << (((i - 1) & 3) * 2);
+                if ((i & 3) == 0 || i == length - 1) {
+                    out.put((byte) packed);
+                    packed = 0;
+                }
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                out.putLong(body.get(i));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Reads a snapshot, restoring it into {@code reuse} when that engine
+     * has the same board size and into a new engine otherwise. Sizes are
+     * checked before anything is allocated, and every cell against the
+     * board plus the border the occupancy grid tracks; malformed or
+     * truncated input throws IllegalArgumentException, as does a
+     * {@code reuse} engine that is not on the classic fruit policy.
+     */
+    public GameEngine decode(ByteBuffer in, GameEngine reuse) {
+        if (reuse != null && !reuse.getFruitPolicy().isClassic()) {
+            throw new IllegalArgumentException("Snapshots can only be restored into classic single-fruit games");
+        }
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a worm game snapshot");
+            }
+            byte version = in.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported snapshot version " + version);
+            }
+            int width = in.getInt();
+            int height = in.getInt();
+            if (width < 1 || height < 1 || width > MAX_SIDE || height > MAX_SIDE) {
+                throw new IllegalArgumentException("Snapshot board size " + width + "x" + height + " is out of range");
+            }
+            long seed = in.getLong();
+            long randomState = in.getLong();
+            long tick = in.getLong();
+            int appleCounter = in.getInt();
+            int flags = in.get();
+            Direction direction = DIRECTIONS[in.get() & 3];
+            int fruits = in.get();
+            long appleCell = readFruit(in, (fruits & 1) != 0, width, height);
+            long orangeCell = readFruit(in, (fruits & 2) != 0, width, height);
+            long mushroomCell = readFruit(in, (fruits & 4) != 0, width, height);
+
+            byte bodyEncoding = in.get();
+            int length = in.getInt();
+            if (length < 1) {
+                throw new IllegalArgumentException("Snapshot has an empty worm");
+            }
+            // the worm can reach one cell past the right and bottom edge
+            if (length > (width + 1) * (height + 1)) {
+                throw new IllegalArgumentException("Snapshot worm of length " + length + " does not fit the board");
+            }
+            long bodyBytes = bodyEncoding == BODY_STEPS ? 8L + (length + 2) / 4 : 8L * length;
+            if (bodyBytes > in.remaining()) {
+                throw new IllegalArgumentException("Truncated snapshot");
+            }
+            if (this.cells.length < length) {
+                this.cells = new long[Math.max(length, this.cells.length * 2)];
+            }
+            if (bodyEncoding == BODY_STEPS) {
+                int x = in.getInt();
+                int y = in.getInt();
+                this.cells[0] = checkCell(WormBody.pack(x, y), width, height);
+                int packed = 0;
+                for (int i = 1; i < length; i++) {
+                    if (((i - 1) & 3) == 0) {
+                        packed = in.get();
+                    }
+                    switch (DIRECTIONS[(packed >> (((i - 1) & 3) * 2)) & 3]) {
+                        case UP: y--; break;
+                        case DOWN: y++; break;
+                        case LEFT: x--; break;
+                        case RIGHT: x++; break;
+                    }
+                    this.cells[i] = checkCell(WormBody.pack(x, y), width, height);
+                }
+            } else {
+                for (int i = 0; i < length; i++) {
+                    this.cells[i] = checkCell(in.getLong(), width, height);
+                }
+            }
+
+            GameEngine engine = reuse;
+            if (engine == null || engine.getWidth() != width || engine.getHeight() != height) {
+                engine = new GameEngine(width, height, seed);
+            }
+            engine.getWorm().restore(this.cells, length, direction, (flags & 16) != 0);
+            engine.restore(seed, randomState, tick, appleCounter, (flags & 1) != 0, (flags & 2) != 0,
+                    (flags & 4) != 0, (flags & 8) != 0, appleCell, orangeCell, mushroomCell);
+            return engine;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated snapshot", e);
+        }
+    }
+
+    private static void putFruit(ByteBuffer out, long cell) {
+        out.putLong(cell == GameEngine.NO_FRUIT ? 0L : cell);
+    }
+
+    private static long readFruit(ByteBuffer in, boolean present, int width, int height) {
+        long cell = in.getLong();
+        return present ? checkCell(cell, width, height) : GameEngine.NO_FRUIT;
+    }
+
+    /**
+     * The cell, if it lies where the occupancy grid tracks it: the board,
+     * plus the cells past its edges that a head reaches as the worm dies.
+     */
+    private static long checkCell(long cell, int width, int height) {
+        int x = WormBody.unpackX(cell);
+        int y = WormBody.unpackY(cell);
+        if (x < -1 || y < -1 || x > width + 1 || y > height + 1) {
+            throw new IllegalArgumentException("Snapshot cell " + x + "," + y + " is off the "
+                    + width + "x" + height + " board");
+        }
+        return cell;
+    }
+
+    private static int stepBetween(long from, long to) {
+        int dx = WormBody.unpackX(to) - WormBody.unpackX(from);
+        int dy = WormBody.unpackY(to) - WormBody.unpackY(from);
+        if (dx == 0 && dy == -1) return Direction.UP.ordinal();
+        if (dx == 0 && dy == 1) return Direction.DOWN.ordinal();
+        if (dx == -1 && dy == 0) return Direction.LEFT.ordinal();
+        if (dx == 1 && dy == 0) return Direction.RIGHT.ordinal();
+        return -1;
+    }
+}
@@ -0,0 +1,140 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import com.portfolio.wormgame.domain.FruitStore;
+import com.portfolio.wormgame.domain.FruitType;
+import com.portfolio.wormgame.domain.Occupancy;
+import com.portfolio.wormgame.domain.Worm;
+import com.portfolio.wormgame.domain.WormBody;
+
+/**
+ * Fills the board by following a fixed Hamiltonian cycle: a serpentine
+ * through every row but the first column, returning along that column (or
+ * the same turned sideways when only the width is even). While the worm is
+ * short it may cut ahead along the cycle towards the apple, as long as the
+ * cut neither passes the apple nor gets near its own tail; past half the
+ * board it sticks to the cycle, which can never run into itself.
+ *
+ * Meant for apple-only games such as {@link FruitPolicy#targets} with no
+ * mushrooms: a mushroom turns the worm back along its own body, which no
+ * cycle can survive.
+ */
+public class HamiltonianController implements Strategy {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    // UP, RIGHT, DOWN, LEFT
+    private static final int[] DX = {0, 1, 0, -1};
+    private static final int[] DY = {-1, 0, 1, 0};
+    // free cells to keep between a shortcut and the tail
+    private static final int TAIL_MARGIN = 4;
+
+    private final int width;
+    private final int height;
+    private final int cells;
+    private final int[] order;
+
+    public HamiltonianController(int width, int height) {
+        if (width < 2 || height < 2 || (width % 2 != 0 && height % 2 != 0)) {
+            throw new IllegalArgumentException("A Hamiltonian cycle needs both sides >= 2 and one of them even");
+        }
+        this.width = width;
+        this.height = height;
+        this.cells = width * height;
+        this.order = new int[this.cells];
+        int index = 0;
+        if (height % 2 == 0) {
+            for (int y = 0; y < height; y++) {
+                for (int step = 1; step < width; step++) {
+                    int x = y % 2 == 0 ? step : width - step;
+                    this.order[y * width + x] = index++;
+                }
+            }
+            for (int y = height - 1; y >= 0; y--) {
+                this.order[y * width] = index++;
+            }
+        } else {
+            for (int x = 0; x < width; x++) {
+                for (int step = 1; step < height; step++) {
+                    int y = x % 2 == 0 ? step : height - step;
+                    this.order[y * width + x] = index++;
+                }
+            }
+            for (int x = width - 1; x >= 0; x--) {
+                this.order[x] = index++;
+            }
+        }
+    }
+
+    /** Position of the cell along the cycle. */
+    public int cycleIndex(int x, int y) {
+        return this.order[y * this.width + x];
+    }
+
+    @Override
+    public Direction decide(GameEngine engine) {
+        Worm worm = engine.getWorm();
+        int headX = worm.getHeadX();
+        int headY = worm.getHeadY();
+        if (!inside(headX, headY)) {
+            return null;
+        }
+        int head = cycleIndex(headX, headY);
+        WormBody body = worm.getBody();
+        int tailDistance = body.size() > 1 ? forward(head, cycleIndex(body.getX(0), body.getY(0))) : this.cells;
+        int appleDistance = appleDistance(engine.getFruits(), head);
+        boolean shortcuts = worm.getLength() < this.cells / 2;
+        // the tail moves out of the way unless the worm is still growing
+        long movingTail = body.size() >= 3 && !worm.isGrowing() ? body.tail() : Occupancy.NO_CELL;
+
+        int current = worm.getDirection().ordinal();
+        int best = -1;
+        int bestDistance = 0;
+        // used only when the worm is off the cycle, e.g. facing against it at the start
+        int fallback = -1;
+        int fallbackDistance = -1;
+        for (int direction = 0; direction < 4; direction++) {
+            if (direction == (current ^ 2)) {
+                continue;
+            }
+            int x = headX + DX[direction];
+            int y = headY + DY[direction];
+            if (!inside(x, y) || (worm.runsInto(x, y) && WormBody.pack(x, y) != movingTail)) {
+                continue;
+            }
+            int distance = forward(head, cycleIndex(x, y));
+            boolean allowed = distance == 1
+                    || (shortcuts && distance <= appleDistance && distance < tailDistance - TAIL_MARGIN);
+            if (allowed && distance > bestDistance) {
+                best = direction;
+                bestDistance = distance;
+            }
+            int room = distance < tailDistance ? distance : distance - this.cells;
+            if (room > fallbackDistance || fallback < 0) {
+                fallback = direction;
+                fallbackDistance = room;
+            }
+        }
+        if (best < 0) {
+            best = fallback;
+        }
+        return best < 0 || best == current ? null : DIRECTIONS[best];
+    }
+
+    private int appleDistance(FruitStore fruits, int head) {
+        if (fruits.count(FruitType.APPLE) == 0) {
+            return this.cells;
+        }
+        long apple = fruits.cell(FruitType.APPLE, 0);
+        return forward(head, cycleIndex(WormBody.unpackX(apple), WormBody.unpackY(apple)));
+    }
+
+    /** Steps along the cycle from one index to the other. */
+    private int forward(int from, int to) {
+        int distance = to - from;
+        return distance < 0 ? distance + this.cells : distance;
+    }
+
+    private boolean inside(int x, int y) {
+        return x >= 0 && y >= 0 && x < this.width && y < this.height;
+    }
+}
@@ -0,0 +1,58 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import java.util.Arrays;
+
+/**
+ * Append-only record of the inputs a game consumed, as (tick, direction)
+ * pairs packed into a growable long array. Together with the game's seed
+ * this is enough to re-simulate it exactly.
+ */
+public class InputJournal {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private long[] entries;
+    private int size;
+
+    public InputJournal() {
+        this(64);
+    }
+
+    public InputJournal(int initialCapacity) {
+        this.entries = new long[Math.max(1, initialCapacity)];
+    }
+
+    public void append(long tick, Direction direction) {
+        if (this.size > 0 && tick < getTick(this.size - 1)) {
+            throw new IllegalArgumentException("Tick " + tick + " is before the last recorded tick");
+        }
+        if (this.size == this.entries.length) {
+            this.entries = Arrays.copyOf(this.entries, this.entries.length << 1);
+        }
+        this.entries[this.size++] = (tick << 2) | direction.ordinal();
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public long getTick(int index) {
+        return entry(index) >>> 2;
+    }
+
+    public Direction getDirection(int index) {
+        return DIRECTIONS[(int) (entry(index) & 3)];
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    private long entry(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+        return this.entries[index];
+    }
+}
@@ -0,0 +1,85 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue of directions with many producers (keyboard,
+ * HTTP threads) and one consumer (the thread ticking the game). Each slot
+ * carries a sequence number that tells producers when it is free and the
+ * consumer when it is filled, so neither side ever blocks; a full queue
+ * rejects the offer instead.
+ */
+public class InputQueue {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final byte[] values;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    public InputQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.values = new byte[size];
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    public int capacity() {
+        return this.mask + 1;
+    }
+
+    /**
+     * Adds a direction; safe from any thread. Returns false if the queue
+     * is full.
+     */
+    public boolean offer(Direction direction) {
+        long position = this.tail.get();
+        while (true) {
+            int slot = (int) position & this.mask;
+            long difference = this.sequences.get(slot) - position;
+            if (difference == 0) {
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    this.values[slot] = (byte) direction.ordinal();
+                    this.sequences.lazySet(slot, position + 1);
+                    return true;
+                }
+                position = this.tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = this.tail.get();
+            }
+        }
+    }
+
+    /**
+     * Takes the oldest direction, or null if none is ready. Only the
+     * consuming thread may call this.
+     */
+    public Direction poll() {
+        int slot = (int) this.head & this.mask;
+        if (this.sequences.get(slot) != this.head + 1) {
+            return null;
+        }
+        Direction direction = DIRECTIONS[this.values[slot]];
+        this.sequences.lazySet(slot, this.head + this.mask + 1);
+        this.head++;
+        return direction;
+    }
+
+    /**
+     * Drops everything queued so far; consumer side only.
+     */
+    public void clear() {
+        while (poll() != null) {
+            // drain
+        }
+    }
+}
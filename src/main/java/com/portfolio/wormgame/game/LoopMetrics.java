@@ -0,0 +1,68 @@
+package com.portfolio.wormgame.game;
+
+/**
+ * Counters exported by a {@link GameLoop}. Written only by the loop thread
+ * and safe to read from any other thread.
+ */
+public class LoopMetrics {
+
+    private volatile long ticks;
+    private volatile long lateTicks;
+    private volatile long droppedTicks;
+    private volatile long overruns;
+    private volatile long totalOverrunNanos;
+    private volatile long maxOverrunNanos;
+
+    void recordTick(long workNanos, long budgetNanos, boolean late) {
+        this.ticks++;
+        if (late) {
+            this.lateTicks++;
+        }
+        long overrun = workNanos - budgetNanos;
+        if (overrun > 0) {
+            this.overruns++;
+            this.totalOverrunNanos += overrun;
+            if (overrun > this.maxOverrunNanos) {
+                this.maxOverrunNanos = overrun;
+            }
+        }
+    }
+
+    void recordDropped(long count) {
+        this.droppedTicks += count;
+    }
+
+    /** Ticks executed so far. */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /** Ticks that started a full period or more behind schedule and were caught up. */
+    public long getLateTicks() {
+        return lateTicks;
+    }
+
+    /** Ticks abandoned because the loop fell further behind than its catch-up limit. */
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+
+    /** Ticks whose own execution took longer than their budget. */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    public long getTotalOverrunNanos() {
+        return totalOverrunNanos;
+    }
+
+    public long getMaxOverrunNanos() {
+        return maxOverrunNanos;
+    }
+
+    public String toJson() {
+        return String.format("{\"ticks\": %d, \"lateTicks\": %d, \"droppedTicks\": %d, "
+                + "\"overruns\": %d, \"totalOverrunNanos\": %d, \"maxOverrunNanos\": %d}",
+                ticks, lateTicks, droppedTicks, overruns, totalOverrunNanos, maxOverrunNanos);
+    }
+}
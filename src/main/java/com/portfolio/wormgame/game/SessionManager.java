@@ -0,0 +1,224 @@
+package com.portfolio.wormgame.game;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hosts many independent games. Sessions are partitioned across a fixed
+ * pool of shard threads, each of which advances its own games in a tight
+ * loop against per-game deadlines. A session leaves the manager when it
+ * is removed or its game ends.
+ */
+public class SessionManager {
+
+    private static final int MAX_CATCH_UP = 5;
+
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final Shard[] shards;
+    private final SpeedCurve speedCurve;
+    private final long initialDelayNanos;
+
+    public SessionManager(int shardCount, SpeedCurve speedCurve, long initialDelayNanos) {
+        this.speedCurve = speedCurve;
+        this.initialDelayNanos = initialDelayNanos;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            this.shards[i] = new Shard(i);
+        }
+    }
+
+    public static SessionManager perCore() {
+        return new SessionManager(Runtime.getRuntime().availableProcessors(),
+                SpeedCurve.inverseLength(1_000_000_000L, 1_000_000L), 0);
+    }
+
+    public void start() {
+        for (Shard shard : this.shards) {
+            shard.thread.start();
+        }
+    }
+
+    public void stop() {
+        for (Shard shard : this.shards) {
+            shard.running = false;
+            LockSupport.unpark(shard.thread);
+        }
+        for (Shard shard : this.shards) {
+            try {
+                shard.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public GameSession create(int width, int height) {
+        return add(new GameEngine(width, height));
+    }
+
+    public GameSession add(GameEngine engine) {
+        long id = this.nextId.getAndIncrement();
+        GameSession session = new GameSession(id, engine);
+        this.sessions.put(id, session);
+        shardOf(id).submit(session, true);
+        return session;
+    }
+
+    public GameSession get(long id) {
+        return this.sessions.get(id);
+    }
+
+    public boolean remove(long id) {
+        GameSession session = this.sessions.remove(id);
+        if (session == null) {
+            return false;
+        }
+        shardOf(id).submit(session, false);
+        return true;
+    }
+
+    public int size() {
+        return this.sessions.size();
+    }
+
+    public int getShardCount() {
+        return this.shards.length;
+    }
+
+    public LoopMetrics getShardMetrics(int shard) {
+        return this.shards[shard].metrics;
+    }
+
+    private static long sizeKey(GameEngine engine) {
+        return ((long) engine.getWidth() << 32) | (engine.getHeight() & 0xffffffffL);
+    }
+
+    private Shard shardOf(long id) {
+        return this.shards[(int) (id % this.shards.length)];
+    }
+
+    private class Shard implements Runnable {
+
+        private final Thread thread;
+        private final LoopMetrics metrics = new LoopMetrics();
+        // one per board size, so sessions of different sizes don't make it resize every tick
+        private final Map<Long, Autopilot> autopilots = new HashMap<>();
+        private final ConcurrentLinkedQueue<GameSession> added = new ConcurrentLinkedQueue<>();
+        private final ConcurrentLinkedQueue<GameSession> removed = new ConcurrentLinkedQueue<>();
+        private final List<GameSession> owned = new ArrayList<>();
+        private volatile boolean running = true;
+
+        Shard(int index) {
+            this.thread = new Thread(this, "worm-game-shard-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        void submit(GameSession session, boolean add) {
+            (add ? this.added : this.removed).add(session);
+            LockSupport.unpark(this.thread);
+        }
+
+        @Override
+        public void run() {
+            while (this.running) {
+                drainMembership();
+                long now = System.nanoTime();
+                long earliest = now + 1_000_000_000L;
+                for (int i = 0; i < this.owned.size(); i++) {
+                    GameSession session = this.owned.get(i);
+                    if (!session.getEngine().continues()) {
+                        // finished games no longer count against the session cap
+                        sessions.remove(session.getId(), session);
+                        drop(i--);
+                        continue;
+                    }
+                    long deadline = advance(session, now);
+                    if (deadline < earliest) {
+                        earliest = deadline;
+                    }
+                }
+                long wait = earliest - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+        }
+
+        private long advance(GameSession session, long now) {
+            GameEngine engine = session.getEngine();
+            long deadline = session.getDeadline();
+            int executed = 0;
+            while (now >= deadline && executed < MAX_CATCH_UP && engine.continues()) {
+                long budget = speedCurve.tickNanos(engine.getWorm().getLength());
+                boolean late = now - deadline >= budget;
+                long start = System.nanoTime();
+                if (session.isAutopilot()) {
+                    engine.step(autopilotFor(engine).decide(engine));
+                } else {
+                    engine.step();
+                }
+                now = System.nanoTime();
+                this.metrics.recordTick(now - start, budget, late);
+                deadline += budget;
+                executed++;
+            }
+            if (now >= deadline && engine.continues()) {
+                long budget = Math.max(1, speedCurve.tickNanos(engine.getWorm().getLength()));
+                this.metrics.recordDropped((now - deadline) / budget + 1);
+                deadline = now + budget;
+            }
+            session.setDeadline(deadline);
+            return deadline;
+        }
+
+        private Autopilot autopilotFor(GameEngine engine) {
+            return this.autopilots.computeIfAbsent(sizeKey(engine),
+                    key -> new Autopilot(engine.getWidth(), engine.getHeight()));
+        }
+
+        private void drainMembership() {
+            GameSession session;
+            while ((session = this.added.poll()) != null) {
+                session.setDeadline(System.nanoTime() + initialDelayNanos);
+                this.owned.add(session);
+            }
+            while ((session = this.removed.poll()) != null) {
+                int index = this.owned.indexOf(session);
+                if (index >= 0) {
+                    drop(index);
+                }
+            }
+        }
+
+        /** Removes an owned session, moving the last one into its place. */
+        private void drop(int index) {
+            GameSession session = this.owned.get(index);
+            int last = this.owned.size() - 1;
+            this.owned.set(index, this.owned.get(last));
+            this.owned.remove(last);
+            releaseAutopilot(session.getEngine());
+        }
+
+        /** Drops the autopilot for a board size no owned session uses any more. */
+        private void releaseAutopilot(GameEngine removed) {
+            long key = sizeKey(removed);
+            if (!this.autopilots.containsKey(key)) {
+                return;
+            }
+            for (int i = 0; i < this.owned.size(); i++) {
+                if (sizeKey(this.owned.get(i).getEngine()) == key) {
+                    return;
+                }
+            }
+            this.autopilots.remove(key);
+        }
+    }
+}
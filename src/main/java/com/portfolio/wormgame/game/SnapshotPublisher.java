@@ -0,0 +1,74 @@
+package com.portfolio.wormgame.game;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes a {@link StateSnapshot} of one engine after every tick for any
+ * number of reader threads. Snapshots come from a small pool and are
+ * reference counted: the tick thread refills only buffers nobody holds,
+ * and readers retain the current one without locks, so neither side waits
+ * on the other. The pool grows only if readers hold on to several old
+ * snapshots at once.
+ */
+public class SnapshotPublisher {
+
+    private static final int INITIAL_POOL = 3;
+
+    private final AtomicReference<StateSnapshot> current = new AtomicReference<>();
+    private final int bodyCapacity;
+    private StateSnapshot[] pool;
+
+    public SnapshotPublisher(int bodyCapacity) {
+        this.bodyCapacity = bodyCapacity;
+        this.pool = new StateSnapshot[INITIAL_POOL];
+        for (int i = 0; i < this.pool.length; i++) {
+            this.pool[i] = new StateSnapshot(bodyCapacity);
+        }
+    }
+
+    /**
+     * Copies the engine's state into a free buffer and makes it current.
+     * Only the thread ticking the engine may call this.
+     */
+    void publish(GameEngine engine) {
+        StateSnapshot next = claimFree();
+        next.fill(engine);
+        next.seal();
+        StateSnapshot previous = this.current.getAndSet(next);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * The latest snapshot, retained for the caller; close it when done.
+     * Returns null before the first publish.
+     */
+    public StateSnapshot acquire() {
+        while (true) {
+            StateSnapshot snapshot = this.current.get();
+            if (snapshot == null) {
+                return null;
+            }
+            if (snapshot.tryRetain()) {
+                return snapshot;
+            }
+        }
+    }
+
+    private StateSnapshot claimFree() {
+        for (StateSnapshot snapshot : this.pool) {
+            if (snapshot.tryClaim()) {
+                return snapshot;
+            }
+        }
+        int size = this.pool.length;
+        this.pool = Arrays.copyOf(this.pool, size << 1);
+        for (int i = size; i < this.pool.length; i++) {
+            this.pool[i] = new StateSnapshot(this.bodyCapacity);
+        }
+        this.pool[size].tryClaim();
+        return this.pool[size];
+    }
+}
@@ -0,0 +1,21 @@
+package com.portfolio.wormgame.game;
+
+/**
+ * Maps the worm's length to the time budget of one tick.
+ */
+public interface SpeedCurve {
+
+    long tickNanos(int length);
+
+    /**
+     * The classic curve: one second divided by the worm's length, never
+     * faster than the given floor.
+     */
+    static SpeedCurve inverseLength(long baseNanos, long minNanos) {
+        return length -> Math.max(minNanos, baseNanos / Math.max(1, length));
+    }
+
+    static SpeedCurve constant(long nanos) {
+        return length -> nanos;
+    }
+}
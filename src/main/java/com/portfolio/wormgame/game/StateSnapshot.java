@@ -0,0 +1,164 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import com.portfolio.wormgame.domain.FruitStore;
+import com.portfolio.wormgame.domain.FruitType;
+import com.portfolio.wormgame.domain.WormBody;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only copy of a {@link GameEngine}'s state as of one tick, handed out
+ * by {@link SnapshotPublisher#acquire()}. Readers must {@link #close()} it
+ * when done so the buffer can be refilled; until then it never changes.
+ *
+ * The worm is stored tail first, like {@link WormBody}; fruits are listed
+ * type by type in {@link FruitType} order.
+ */
+public final class StateSnapshot implements AutoCloseable {
+
+    private static final FruitType[] FRUIT_TYPES = FruitType.values();
+
+    // > 0: readable, holding that many references; 0: free; -1: being filled
+    private final AtomicInteger references = new AtomicInteger();
+    private long version;
+    private int width;
+    private int height;
+    private int appleCounter;
+    private boolean continues;
+    private boolean boardFull;
+    private boolean movingBackwards;
+    private Direction direction;
+    private long[] body;
+    private int length;
+    private long[] fruitCells = new long[1];
+    private int fruitCount;
+    private final int[] fruitTypeCounts = new int[FRUIT_TYPES.length];
+
+    StateSnapshot(int bodyCapacity) {
+        this.body = new long[Math.max(1, bodyCapacity)];
+    }
+
+    /** Tick the snapshot was taken after; increases with every publish. */
+    public long getVersion() {
+        return this.version;
+    }
+
+    public int getWidth() {
+        return this.width;
+    }
+
+    public int getHeight() {
+        return this.height;
+    }
+
+    public int getAppleCounter() {
+        return this.appleCounter;
+    }
+
+    public boolean continues() {
+        return this.continues;
+    }
+
+    public boolean isBoardFull() {
+        return this.boardFull;
+    }
+
+    public boolean isMovingBackwards() {
+        return this.movingBackwards;
+    }
+
+    public Direction getDirection() {
+        return this.direction;
+    }
+
+    public int getLength() {
+        return this.length;
+    }
+
+    public int getX(int index) {
+        return WormBody.unpackX(this.body[index]);
+    }
+
+    public int getY(int index) {
+        return WormBody.unpackY(this.body[index]);
+    }
+
+    public int getFruitCount() {
+        return this.fruitCount;
+    }
+
+    public boolean hasFruit(FruitType type) {
+        return this.fruitTypeCounts[type.ordinal()] > 0;
+    }
+
+    public FruitType getFruitType(int index) {
+        int ordinal = 0;
+        for (int end = this.fruitTypeCounts[0]; index >= end; end += this.fruitTypeCounts[ordinal]) {
+            ordinal++;
+        }
+        return FRUIT_TYPES[ordinal];
+    }
+
+    public int getFruitX(int index) {
+        return WormBody.unpackX(this.fruitCells[index]);
+    }
+
+    public int getFruitY(int index) {
+        return WormBody.unpackY(this.fruitCells[index]);
+    }
+
+    @Override
+    public void close() {
+        this.references.decrementAndGet();
+    }
+
+    boolean tryRetain() {
+        int current;
+        do {
+            current = this.references.get();
+            if (current <= 0) {
+                return false;
+            }
+        } while (!this.references.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    boolean tryClaim() {
+        return this.references.compareAndSet(0, -1);
+    }
+
+    /** Ends filling; the publisher holds the first reference. */
+    void seal() {
+        this.references.set(1);
+    }
+
+    void fill(GameEngine engine) {
+        WormBody worm = engine.getWorm().getBody();
+        if (this.body.length < worm.size()) {
+            this.body = new long[Math.max(worm.size(), this.body.length << 1)];
+        }
+        worm.copyTo(this.body);
+        this.length = worm.size();
+        this.version = engine.getTick();
+        this.width = engine.getWidth();
+        this.height = engine.getHeight();
+        this.appleCounter = engine.getAppleCounter();
+        this.continues = engine.continues();
+        this.boardFull = engine.isBoardFull();
+        this.movingBackwards = engine.isMovingBackwards();
+        this.direction = engine.getWorm().getDirection();
+        FruitStore fruits = engine.getFruits();
+        if (this.fruitCells.length < fruits.size()) {
+            this.fruitCells = new long[Math.max(fruits.size(), this.fruitCells.length << 1)];
+        }
+        int next = 0;
+        for (FruitType type : FRUIT_TYPES) {
+            int count = fruits.count(type);
+            for (int i = 0; i < count; i++) {
+                this.fruitCells[next++] = fruits.cell(type, i);
+            }
+            this.fruitTypeCounts[type.ordinal()] = count;
+        }
+        this.fruitCount = next;
+    }
+}
@@ -0,0 +1,14 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+
+/**
+ * Something that plays the game: picks the input for the next tick from
+ * the engine's current state. Implementations may keep scratch buffers,
+ * so give each thread its own instance.
+ */
+public interface Strategy {
+
+    /** The direction for the next tick, or null to keep going. */
+    Direction decide(GameEngine engine);
+}
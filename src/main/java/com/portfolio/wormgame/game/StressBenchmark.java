@@ -0,0 +1,103 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import com.portfolio.wormgame.gui.FrameRasterizer;
+import java.util.Random;
+
+/**
+ * Fills a board with the {@link HamiltonianController} and reports how
+ * tick, fruit spawn and render times change as the worm approaches
+ * width * height pieces. Runs headless; start it with
+ * {@code java -jar wormgame.jar --benchmark [width] [height] [seed]}.
+ */
+public class StressBenchmark {
+
+    private static final double[] FILL_BOUNDS = {0.5, 0.75, 0.9, 0.95, 0.99, 1.01};
+    private static final String[] FILL_LABELS = {"< 50%", "50-75%", "75-90%", "90-95%", "95-99%", ">= 99%"};
+    private static final int PIECE_LENGTH = 20;
+
+    private final int width;
+    private final int height;
+    private final long seed;
+
+    private final long[] ticks = new long[FILL_BOUNDS.length];
+    private final long[] tickNanos = new long[FILL_BOUNDS.length];
+    private final long[] maxTickNanos = new long[FILL_BOUNDS.length];
+    private final long[] spawnNanos = new long[FILL_BOUNDS.length];
+    private final long[] renders = new long[FILL_BOUNDS.length];
+    private final long[] renderNanos = new long[FILL_BOUNDS.length];
+
+    public StressBenchmark(int width, int height, long seed) {
+        this.width = width;
+        this.height = height;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : width;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1L;
+        System.setProperty("java.awt.headless", "true");
+        new StressBenchmark(width, height, seed).run();
+    }
+
+    public void run() {
+        GameEngine engine = new GameEngine(this.width, this.height, this.seed, FruitPolicy.targets(1, 0, 0));
+        HamiltonianController controller = new HamiltonianController(this.width, this.height);
+        FrameRasterizer rasterizer = new FrameRasterizer(PIECE_LENGTH);
+        Random probe = new Random(this.seed);
+        int cells = this.width * this.height;
+        int renderEvery = Math.max(1, cells / 4);
+
+        System.out.println("🐍 Filling a " + this.width + "x" + this.height + " board with a Hamiltonian bot...");
+        long started = System.nanoTime();
+        int lastBucket = -1;
+        while (engine.continues()) {
+            int bucket = bucketOf((double) engine.getWorm().getLength() / cells);
+
+            long start = System.nanoTime();
+            engine.probeFreeCell(probe);
+            this.spawnNanos[bucket] += System.nanoTime() - start;
+
+            Direction input = controller.decide(engine);
+            start = System.nanoTime();
+            engine.step(input);
+            long elapsed = System.nanoTime() - start;
+            this.ticks[bucket]++;
+            this.tickNanos[bucket] += elapsed;
+            this.maxTickNanos[bucket] = Math.max(this.maxTickNanos[bucket], elapsed);
+
+            if (bucket != lastBucket || engine.getTick() % renderEvery == 0) {
+                start = System.nanoTime();
+                try (StateSnapshot snapshot = engine.acquireSnapshot()) {
+                    rasterizer.render(snapshot, true);
+                }
+                this.renderNanos[bucket] += System.nanoTime() - start;
+                this.renders[bucket]++;
+                lastBucket = bucket;
+            }
+        }
+
+        System.out.printf("✅ Length %d of %d after %d ticks in %.1f s (board full: %b)%n",
+                engine.getWorm().getLength(), cells, engine.getTick(),
+                (System.nanoTime() - started) / 1e9, engine.isBoardFull());
+        System.out.printf("%-8s %12s %12s %12s %12s %12s%n",
+                "fill", "ticks", "tick avg ns", "tick max ns", "spawn avg ns", "render avg ms");
+        for (int i = 0; i < FILL_BOUNDS.length; i++) {
+            if (this.ticks[i] == 0) {
+                continue;
+            }
+            System.out.printf("%-8s %12d %12d %12d %12d %12.2f%n", FILL_LABELS[i], this.ticks[i],
+                    this.tickNanos[i] / this.ticks[i], this.maxTickNanos[i], this.spawnNanos[i] / this.ticks[i],
+                    this.renders[i] == 0 ? 0 : this.renderNanos[i] / 1e6 / this.renders[i]);
+        }
+    }
+
+    private static int bucketOf(double fill) {
+        int bucket = 0;
+        while (fill >= FILL_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+}
@@ -0,0 +1,118 @@
+package com.portfolio.wormgame.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Plays every registered strategy against the same list of seeds on a
+ * fork/join pool. Games are stepped directly with no timer, so they run
+ * as fast as the CPU allows, and each game gets a fresh strategy and an
+ * engine built from its seed: the same seeds always give the same results,
+ * however the work is split across threads.
+ */
+public class Tournament {
+
+    private static final int GAMES_PER_TASK = 4;
+
+    private final int width;
+    private final int height;
+    private final long maxTicks;
+    private final ForkJoinPool pool;
+    private final List<String> names = new ArrayList<>();
+    private final List<Supplier<? extends Strategy>> factories = new ArrayList<>();
+
+    public Tournament(int width, int height, long maxTicks) {
+        this(width, height, maxTicks, ForkJoinPool.commonPool());
+    }
+
+    public Tournament(int width, int height, long maxTicks, ForkJoinPool pool) {
+        this.width = width;
+        this.height = height;
+        this.maxTicks = maxTicks;
+        this.pool = pool;
+    }
+
+    public Tournament add(String name, Supplier<? extends Strategy> factory) {
+        this.names.add(name);
+        this.factories.add(factory);
+        return this;
+    }
+
+    /**
+     * Plays each strategy once per seed and returns one result per
+     * strategy, in the order they were added.
+     */
+    public List<TournamentResult> run(long[] seeds) {
+        int strategies = this.factories.size();
+        int games = strategies * seeds.length;
+        int[] lengths = new int[games];
+        int[] apples = new int[games];
+        long[] ticks = new long[games];
+        boolean[] survived = new boolean[games];
+
+        this.pool.invoke(new GameTask(seeds, 0, games, lengths, apples, ticks, survived));
+
+        List<TournamentResult> results = new ArrayList<>(strategies);
+        for (int s = 0; s < strategies; s++) {
+            int from = s * seeds.length;
+            int to = from + seeds.length;
+            results.add(new TournamentResult(this.names.get(s), seeds.clone(),
+                    Arrays.copyOfRange(lengths, from, to),
+                    Arrays.copyOfRange(apples, from, to),
+                    Arrays.copyOfRange(ticks, from, to),
+                    Arrays.copyOfRange(survived, from, to)));
+        }
+        return results;
+    }
+
+    private class GameTask extends RecursiveAction {
+
+        private final long[] seeds;
+        private final int from;
+        private final int to;
+        private final int[] lengths;
+        private final int[] apples;
+        private final long[] ticks;
+        private final boolean[] survived;
+
+        GameTask(long[] seeds, int from, int to, int[] lengths, int[] apples, long[] ticks, boolean[] survived) {
+            this.seeds = seeds;
+            this.from = from;
+            this.to = to;
+            this.lengths = lengths;
+            this.apples = apples;
+            this.ticks = ticks;
+            this.survived = survived;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= GAMES_PER_TASK) {
+                for (int game = this.from; game < this.to; game++) {
+                    play(game);
+                }
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new GameTask(this.seeds, this.from, middle, this.lengths, this.apples, this.ticks, this.survived),
+                    new GameTask(this.seeds, middle, this.to, this.lengths, this.apples, this.ticks, this.survived));
+        }
+
+        private void play(int game) {
+            Strategy strategy = factories.get(game / this.seeds.length).get();
+            GameEngine engine = new GameEngine(width, height, this.seeds[game % this.seeds.length]);
+            while (engine.continues() && engine.getTick() < maxTicks) {
+                engine.step(strategy.decide(engine));
+            }
+            this.lengths[game] = engine.getWorm().getLength();
+            this.apples[game] = engine.getAppleCounter();
+            this.ticks[game] = engine.getTick();
+            // filling the board ends the game, but as a win
+            this.survived[game] = engine.continues() || engine.isBoardFull();
+        }
+    }
+}
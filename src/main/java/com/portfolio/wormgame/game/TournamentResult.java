@@ -0,0 +1,102 @@
+package com.portfolio.wormgame.game;
+
+/**
+ * Per-game outcomes of one strategy in a {@link Tournament}, indexed like
+ * the seeds they were played with, plus summary statistics.
+ */
+public class TournamentResult {
+
+    private final String name;
+    private final long[] seeds;
+    private final int[] lengths;
+    private final int[] apples;
+    private final long[] ticks;
+    private final boolean[] survived;
+
+    TournamentResult(String name, long[] seeds, int[] lengths, int[] apples, long[] ticks, boolean[] survived) {
+        this.name = name;
+        this.seeds = seeds;
+        this.lengths = lengths;
+        this.apples = apples;
+        this.ticks = ticks;
+        this.survived = survived;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public int getGames() {
+        return this.seeds.length;
+    }
+
+    public long getSeed(int game) {
+        return this.seeds[game];
+    }
+
+    public int getLength(int game) {
+        return this.lengths[game];
+    }
+
+    public int getApples(int game) {
+        return this.apples[game];
+    }
+
+    public long getTicks(int game) {
+        return this.ticks[game];
+    }
+
+    /** Whether the game was still running when the tick limit hit, or ended with the board full. */
+    public boolean survived(int game) {
+        return this.survived[game];
+    }
+
+    public double getMeanLength() {
+        long total = 0;
+        for (int length : this.lengths) {
+            total += length;
+        }
+        return this.lengths.length == 0 ? 0 : (double) total / this.lengths.length;
+    }
+
+    public int getMaxLength() {
+        int max = 0;
+        for (int length : this.lengths) {
+            max = Math.max(max, length);
+        }
+        return max;
+    }
+
+    public double getMeanApples() {
+        long total = 0;
+        for (int count : this.apples) {
+            total += count;
+        }
+        return this.apples.length == 0 ? 0 : (double) total / this.apples.length;
+    }
+
+    public double getMeanTicks() {
+        long total = 0;
+        for (long count : this.ticks) {
+            total += count;
+        }
+        return this.ticks.length == 0 ? 0 : (double) total / this.ticks.length;
+    }
+
+    public double getSurvivalRate() {
+        int alive = 0;
+        for (boolean value : this.survived) {
+            if (value) {
+                alive++;
+            }
+        }
+        return this.survived.length == 0 ? 0 : (double) alive / this.survived.length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d games, mean length %.1f (max %d), mean apples %.1f, mean ticks %.0f, survival %.0f%%",
+                this.name, getGames(), getMeanLength(), getMaxLength(), getMeanApples(), getMeanTicks(),
+                getSurvivalRate() * 100);
+    }
+}
@@ -1,65 +1,70 @@
 package com.portfolio.wormgame.game;
 
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.util.Random;
-import java.util.List;
-import java.util.ArrayList;
-import javax.swing.Timer;
-
-import com.portfolio.wormgame.Direction;
 import com.portfolio.wormgame.domain.Worm;
 import com.portfolio.wormgame.domain.Apple;
 import com.portfolio.wormgame.domain.Orange;
 import com.portfolio.wormgame.domain.Mushroom;
 import com.portfolio.wormgame.gui.Updatable;
-import com.portfolio.wormgame.domain.FruitType; 
-import com.portfolio.wormgame.domain.Piece;
 
-public class WormGame extends Timer implements ActionListener {
+/**
+ * Drives a {@link GameEngine} and notifies the {@link Updatable}, if one is
+ * set, after every tick. Ticks are scheduled by a {@link GameLoop} on its
+ * own thread, so the updatable is called on that thread.
+ */
+public class WormGame {
 
-    private int width;
-    private int height;
-    private int x;
-    private int y;
-    private int appleCounter;
+    private static final long START_DELAY_NANOS = 2_000_000_000L;
 
-    private boolean continues;
+    private final GameEngine engine;
+    private final GameLoop loop;
     private Updatable updatable;
-    private Worm worm;
-    private Apple apple;
-    private Orange orange;
-    private Mushroom mushroom;
-    private boolean isMovingBackwards = false;
-    private Random random = new Random();
-    private boolean hasSpawnedFirstFruit = false;
-    private int spawnInterval = 1000;
-    private long lastSpawnTime = 0;
-    private FruitType fruitType;
-    
+    private volatile SpeedCurve speedCurve = SpeedCurve.inverseLength(1_000_000_000L, 1_000_000L);
+
     public WormGame(int width, int height) {
-        super(1000, null);
-        
-        this.appleCounter = 0;
-        this.width = width;
-        this.height = height;
-        this.continues = true;
-        this.worm = new Worm(this.width/2, this.height/2, Direction.DOWN);
-
-        spawnFruit();
-        // this.x = new Random().nextInt(this.width);
-        // this.y = new Random().nextInt(this.height);
-        
-        // this.apple = new Apple(this.x, this.y);
-        // this.orange = new Orange(this.x, this.y);
-        // this.mushroom = new Mushroom(this.x, this.y);
-
-        addActionListener(this);
-        setInitialDelay(2000);
+        this(new GameEngine(width, height));
+    }
+
+    public WormGame(GameEngine engine) {
+        this.engine = engine;
+        this.loop = new GameLoop("worm-game-loop",
+                () -> this.speedCurve.tickNanos(this.engine.getWorm().getLength()),
+                this::tick);
+    }
+
+    public void start() {
+        this.loop.start(START_DELAY_NANOS);
+    }
+
+    public void stop() {
+        this.loop.stop();
+    }
+
+    public boolean isRunning() {
+        return this.loop.isRunning();
+    }
+
+    public GameLoop getLoop() {
+        return this.loop;
+    }
+
+    public LoopMetrics getLoopMetrics() {
+        return this.loop.getMetrics();
+    }
+
+    public void setSpeedCurve(SpeedCurve speedCurve) {
+        this.speedCurve = speedCurve;
+    }
+
+    public GameEngine getEngine() {
+        return this.engine;
     }
 
     public boolean continues() {
-        return continues;
+        return this.engine.continues();
+    }
+
+    public boolean isBoardFull() {
+        return this.engine.isBoardFull();
     }
 
     public void setUpdatable(Updatable updatable) {
@@ -67,173 +72,70 @@ public class WormGame extends Timer implements ActionListener {
     }
 
     public int getHeight() {
-        return height;
+        return this.engine.getHeight();
     }
 
     public int getWidth() {
-        return width;
+        return this.engine.getWidth();
     }
 
-    @Override
-    public void actionPerformed(ActionEvent ae) {
-        if (!continues) {
+    /** Runs one tick; called by the loop thread. */
+    public void tick() {
+        if (!this.engine.continues()) {
             return;
         }
-        this.worm.move();
-        
-        if (this.apple != null && this.worm.runsInto(this.apple)) {
-            appleEffect();
-        } else if (this.orange != null && this.worm.runsInto(this.orange)) {
-            orangeEffect(); 
-        } else if (this.mushroom != null && this.worm.runsInto(this.mushroom)) {
-            mushroomEffect();
-        } else if (this.worm.runsIntoItself()) {
-            this.continues = false;
-        // GAME WALLS:
-        } else if ((this.worm.getPieces().get(this.worm.getLength()-1).getX() == this.width+1 || 
-                this.worm.getPieces().get(this.worm.getLength()-1).getX() == -1)) {
-            this.continues = false;
-        } else if (this.worm.getPieces().get(this.worm.getLength()-1).getY() == this.height+1 || 
-                this.worm.getPieces().get(this.worm.getLength()-1).getY() == -1) {
-            this.continues = false;
+        this.engine.step();
+
+        if (this.updatable != null) {
+            this.updatable.update();
         }
-        
-        this.updatable.update();
-        setDelay(1000 / this.worm.getLength());
     }
-    
+
     public void appleEffect() {
-        this.appleCounter++;
-        this.hasSpawnedFirstFruit = true;
-        this.worm.grow();
-        spawnFruit();        
-    }
-    
-    public void orangeEffect() {
-        if (this.worm.getLength() > 3) {
-            this.worm.shrink();     
-        }
-        spawnFruit();     
-    }
-    public boolean isMovingBackwards() {
-        return this.isMovingBackwards;
-    }
-    
-    public void mushroomEffect() {
-        if (this.worm.getLength() > 3) {
-            this.worm.goBackwards(); 
-            this.isMovingBackwards = true;   
-        }
-        spawnFruit(); 
+        this.engine.appleEffect();
     }
 
-    private void spawnFruit() {
-        this.fruitType = determineFruitType();
-        spawnFruitByType();
+    public void orangeEffect() {
+        this.engine.orangeEffect();
     }
 
-
-    private FruitType determineFruitType() {
-        if (!this.hasSpawnedFirstFruit) {
-            this.hasSpawnedFirstFruit = true;
-            return FruitType.APPLE;
-        }
-        return getRandomFruitType();
+    public boolean isMovingBackwards() {
+        return this.engine.isMovingBackwards();
     }
 
-    private FruitType getRandomFruitType() {
-        List<FruitType> availableFruits = new ArrayList<>();
-        
-        availableFruits.add(FruitType.APPLE);
-        availableFruits.add(FruitType.MUSHROOM);
-        if (this.worm.getLength() > 3) {
-            availableFruits.add(FruitType.ORANGE);
-        }
-        
-        return availableFruits.get(random.nextInt(availableFruits.size()));
-    }
-
-    private void spawnFruitByType() {
-        int x, y;
-        do {
-            x = random.nextInt(this.width);
-            y = random.nextInt(this.height);
-        } while (isPositionOccupied(x, y));
-        
-        switch (this.fruitType) {
-            case APPLE:
-                this.apple = new Apple(x, y);
-                this.orange = null;
-                this.mushroom = null;
-                break;
-            case ORANGE:
-                this.orange = new Orange(x, y);
-                this.apple = null;
-                this.mushroom = null;
-                break;
-            case MUSHROOM:
-                this.mushroom = new Mushroom(x, y);
-                this.apple = null;
-                this.orange = null; 
-                break;
-        }
+    public void mushroomEffect() {
+        this.engine.mushroomEffect();
     }
 
-    // private boolean isPositionOccupiedByWorm(int x, int y) {
-    //     if (this.worm == null) return false;
-    //     return this.worm.runsInto(new Piece(x, y));
-    // }
-
-    private boolean isPositionOccupied(int x, int y) {
-        if (this.worm == null) return false;
-        
-        if (this.worm.runsInto(new Piece(x, y))) {
-            return true;
-        }
-        
-        if (this.apple != null && this.apple.getX() == x && this.apple.getY() == y) {
-            return true;
-        }
-        if (this.orange != null && this.orange.getX() == x && this.orange.getY() == y) {
-            return true;
-        }
-        if (this.mushroom != null && this.mushroom.getX() == x && this.mushroom.getY() == y) {
-            return true;
-        }
-        
-        return false;
-    }
-    
     public Worm getWorm() {
-        return this.worm;
+        return this.engine.getWorm();
     }
-    
+
     public void setWorm(Worm worm) {
-        this.worm = worm;
+        this.engine.setWorm(worm);
     }
-    
+
     public Apple getApple() {
-        return this.apple;
+        return this.engine.getApple();
     }
-    
+
     public void setApple(Apple apple) {
-        this.apple = apple;
+        this.engine.setApple(apple);
     }
-    
+
     public Orange getOrange() {
-        return this.orange;
-       
+        return this.engine.getOrange();
     }
-    
+
     public void setOrange(Orange orange) {
-        this.orange = orange;
+        this.engine.setOrange(orange);
     }
-    
+
     public void setMushroom(Mushroom mushroom) {
-        this.mushroom = mushroom;
+        this.engine.setMushroom(mushroom);
     }
-    
+
     public Mushroom getMushroom() {
-        return this.mushroom;
+        return this.engine.getMushroom();
     }
 }
@@ -2,16 +2,17 @@ package com.portfolio.wormgame.gui;
 
 import java.awt.Color;
 import com.portfolio.wormgame.game.WormGame;
-import com.portfolio.wormgame.domain.Piece;
+import com.portfolio.wormgame.game.StateSnapshot;
+import com.portfolio.wormgame.domain.FruitType;
+import com.portfolio.wormgame.domain.WormBody;
 import javax.swing.JPanel;
-import javax.swing.ImageIcon;
-import javax.swing.Timer;
+import javax.swing.SwingUtilities;
 import java.awt.Graphics;
 import java.awt.Image;
 import java.awt.image.BufferedImage;
 import java.awt.Graphics2D;
-import java.net.URL;
-import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 public class DrawingBoard extends JPanel implements Updatable {
@@ -21,16 +22,42 @@ public class DrawingBoard extends JPanel implements Updatable {
     private Image scaledAppleIcon;
     private Image scaledOrangeIcon;
     private Image scaledMushroomIcon;
-    private Image scaledHeadIcon;
-    private Image scaledTailIcon;
-    private Image scaledBodyIcon; 
+    private SpriteAtlas sprites;
     
     private static final Color WORM_COLOR = Color.decode("#1dbf44");
-    private boolean isRunning = false;
+    private static final Color BACKGROUND = Color.GRAY;
+    private static final int MAX_DIRTY_CELLS = 64;
+    private volatile boolean isRunning = false;
+    // set while an update is queued on the EDT, so ticks that come faster
+    // than Swing can keep up are folded into one refresh
+    private final AtomicBoolean updatePending = new AtomicBoolean();
+
+    // Back buffer holding the last rendered tick; guarded by bufferLock.
+    // Each tick only the cells that changed are redrawn into it.
+    private final Object bufferLock = new Object();
+    private BufferedImage backBuffer;
+    private boolean needsFullRedraw = true;
+    private boolean renderedRunning;
+    private long renderedVersion;
+    private int renderedLength;
+    private long renderedHead;
+    private long renderedTail;
+    private long renderedSecond;
+    private long[] renderedFruits = new long[1];
+    private int renderedFruitCount;
+    // cells changed since update() last repainted; any refresh may add to
+    // them (paints and captures too), only update() drains them
+    private long[] dirtyCells = new long[8];
+    private int dirtyCount;
+    private boolean allDirty;
+    // worm pieces per board cell as rendered; pieces can overlap after a mushroom
+    private int[] pieceCounts = new int[0];
+    private int countsWidth;
+    private int countsHeight;
 
     
     public DrawingBoard(WormGame game, int pieceLength) {
-        super.setBackground(Color.GRAY);
+        super.setBackground(BACKGROUND);
         this.game = game;
         this.pieceLength = pieceLength;
         loadIcons();
@@ -38,167 +65,351 @@ public class DrawingBoard extends JPanel implements Updatable {
     }
     
     private void loadIcons() {
-        scaledAppleIcon = loadFruitImage("apple");
-        scaledOrangeIcon = loadFruitImage("orange"); 
-        scaledMushroomIcon = loadFruitImage("mushroom");
-
-        scaledHeadIcon = loadWormSegment("snake-head");
-        scaledTailIcon = loadWormSegment("snake-tail");    
+        scaledAppleIcon = SpriteCache.get(SpriteCache.APPLE, pieceLength);
+        scaledOrangeIcon = SpriteCache.get(SpriteCache.ORANGE, pieceLength);
+        scaledMushroomIcon = SpriteCache.get(SpriteCache.MUSHROOM, pieceLength);
+        sprites = SpriteCache.atlas(pieceLength);
     }
 
     private void checkIsRunning() {
-        if (this.game instanceof Timer) {
-            Timer timer = (Timer) this.game;
-            this.isRunning = timer.isRunning();
-        }
+        this.isRunning = this.game.isRunning();
     }
     
-    private Image loadFruitImage(String fruitName) {
-        String imageName = fruitName.toLowerCase() + ".jpg";
-        String resourcePath = "static/icons/" + imageName;
-        return loadImage(resourcePath, fruitName);
+    @Override
+    protected void paintComponent(Graphics g) {
+        synchronized (bufferLock) {
+            if (!refreshBackBuffer()) {
+                super.paintComponent(g);
+                return;
+            }
+            g.drawImage(backBuffer, 0, 0, null);
+        }
     }
-    
-    private Image loadWormSegment(String segmentName) {
-        String imageName = segmentName.toLowerCase() + ".png";
-        String resourcePath = "static/icons/" + imageName;
-        return loadImage(resourcePath, segmentName);
+
+    /**
+     * Brings the back buffer up to the last published tick, adding the
+     * cells that changed to dirtyCells, or setting allDirty when everything
+     * was redrawn. Returns false if there is nothing to draw on.
+     */
+    private boolean refreshBackBuffer() {
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+        if (backBuffer == null || backBuffer.getWidth() != width || backBuffer.getHeight() != height) {
+            backBuffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            needsFullRedraw = true;
+        }
+
+        // the game loop ticks on its own thread; paint the last published tick
+        try (StateSnapshot snapshot = game.getEngine().acquireSnapshot()) {
+            Graphics2D g2d = backBuffer.createGraphics();
+            try {
+                if (needsFullRedraw || renderedRunning != isRunning) {
+                    redrawAll(g2d, snapshot);
+                } else if (snapshot.getVersion() == renderedVersion) {
+                    if (!matchesRendered(snapshot)) {
+                        redrawAll(g2d, snapshot);
+                    }
+                } else if (!redrawChanges(g2d, snapshot)) {
+                    redrawAll(g2d, snapshot);
+                }
+            } finally {
+                g2d.dispose();
+            }
+            remember(snapshot);
+        }
+        return true;
     }
-    
-    private Image loadImage(String resourcePath, String imageType) {    
-        try {
-            URL imageUrl = getClass().getClassLoader().getResource(resourcePath);
-            if (imageUrl != null) {
-                ImageIcon icon = new ImageIcon(imageUrl);
-                return scaleImage(icon.getImage(), pieceLength, pieceLength);
-            } else {
-                System.out.println("✗ Not found in classpath: " + resourcePath);
+
+    private void redrawAll(Graphics g, StateSnapshot snapshot) {
+        g.setColor(BACKGROUND);
+        g.fillRect(0, 0, backBuffer.getWidth(), backBuffer.getHeight());
+        for (int i = 0; i < snapshot.getFruitCount(); i++) {
+            drawFruit(g, fruitIcon(snapshot.getFruitType(i)), snapshot.getFruitX(i), snapshot.getFruitY(i));
+        }
+        if (isRunning) {
+            drawWormWithDirection(g, snapshot);
+        }
+        countPieces(snapshot);
+        needsFullRedraw = false;
+        allDirty = true;
+        dirtyCount = 0;
+    }
+
+    /**
+     * Redraws only what one ordinary tick changes: the new head, the old
+     * head under it, the old and new tail, and any fruit that came or went.
+     * Returns false when the snapshot is not exactly one such tick after
+     * the rendered one (a reversal, a shrink, a missed tick, a reset), which
+     * needs a full redraw instead.
+     */
+    private boolean redrawChanges(Graphics g, StateSnapshot snapshot) {
+        int length = snapshot.getLength();
+        int removed = renderedLength - length + 1;
+        if (!isRunning || snapshot.getVersion() != renderedVersion + 1 || length < 2
+                || (removed != 0 && removed != 1)
+                || cell(snapshot, length - 2) != renderedHead
+                || cell(snapshot, 0) != (removed == 0 ? renderedTail : renderedSecond)) {
+            return false;
+        }
+        long head = cell(snapshot, length - 1);
+        int headIndex = countIndex(head);
+        int tailIndex = countIndex(renderedTail);
+        if (headIndex < 0 || tailIndex < 0) {
+            return false;
+        }
+        pieceCounts[headIndex]++;
+        if (removed == 1) {
+            pieceCounts[tailIndex]--;
+        }
+        // a cell shared by several pieces would need them all redrawn in order
+        if (pieceCounts[headIndex] != 1 || piecesAt(cell(snapshot, length - 2)) != 1 || piecesAt(cell(snapshot, 0)) != 1
+                || (removed == 1 && renderedTail != head && pieceCounts[tailIndex] != 0)) {
+            return false;
+        }
+
+        if (removed == 1) {
+            clearCell(g, snapshot, renderedTail);
+        }
+        for (int i = 0; i < renderedFruitCount; i++) {
+            if (indexOfFruit(snapshot, renderedFruits[i]) < 0) {
+                clearCell(g, snapshot, renderedFruits[i] >>> 2);
             }
-            
-            // (for development)
-            String filePath = "src/main/resources/" + resourcePath;
-            java.io.File file = new java.io.File(filePath);
-            if (file.exists()) {
-                System.out.println("✓ Successfully loaded " + imageType + " from filesystem: " + file.getAbsolutePath());
-                ImageIcon icon = new ImageIcon(filePath);
-                return scaleImage(icon.getImage(), pieceLength, pieceLength);
-            } else {
-                System.out.println("✗ Not found in filesystem: " + filePath);
+        }
+        for (int i = 0; i < snapshot.getFruitCount(); i++) {
+            long fruit = fruitKey(snapshot, i);
+            if (indexOfRenderedFruit(fruit) < 0) {
+                clearCell(g, snapshot, fruit >>> 2);
             }
-            
-        } catch (Exception e) {
-            System.err.println("Error loading " + imageType + " icon: " + e.getMessage());
         }
-        
-        return null;
+        // same order as a full redraw: head first, tail on top
+        redrawPiece(g, snapshot, length - 1);
+        if (length - 2 > 0) {
+            redrawPiece(g, snapshot, length - 2);
+        }
+        redrawPiece(g, snapshot, 0);
+        return true;
     }
-    
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        
-        drawFruit(g, scaledAppleIcon, game.getApple());
-        drawFruit(g, scaledMushroomIcon, game.getMushroom());
-        drawFruit(g, scaledOrangeIcon, game.getOrange());
-        if (this.isRunning) {
-            drawWormWithDirection(g);
+
+    private boolean matchesRendered(StateSnapshot snapshot) {
+        int length = snapshot.getLength();
+        if (length != renderedLength || snapshot.getFruitCount() != renderedFruitCount) {
+            return false;
+        }
+        if (length > 0 && (cell(snapshot, length - 1) != renderedHead || cell(snapshot, 0) != renderedTail
+                || cell(snapshot, Math.min(1, length - 1)) != renderedSecond)) {
+            return false;
         }
+        for (int i = 0; i < renderedFruitCount; i++) {
+            if (fruitKey(snapshot, i) != renderedFruits[i]) {
+                return false;
+            }
+        }
+        return true;
     }
-    
-    private void drawFruit(Graphics g, Image fruitIcon, Piece fruit) {
-        if (fruitIcon != null && fruit != null) {
-            g.drawImage(fruitIcon, fruit.getX() * pieceLength, 
-                       fruit.getY() * pieceLength, this);
+
+    private void countPieces(StateSnapshot snapshot) {
+        countsWidth = snapshot.getWidth();
+        countsHeight = snapshot.getHeight();
+        if (pieceCounts.length != countsWidth * countsHeight) {
+            pieceCounts = new int[countsWidth * countsHeight];
+        } else {
+            Arrays.fill(pieceCounts, 0);
         }
+        for (int i = 0; i < snapshot.getLength(); i++) {
+            int index = countIndex(cell(snapshot, i));
+            if (index >= 0) {
+                pieceCounts[index]++;
+            }
+        }
+    }
+
+    /** Index into pieceCounts, or -1 off the board. */
+    private int countIndex(long cell) {
+        int x = WormBody.unpackX(cell);
+        int y = WormBody.unpackY(cell);
+        if (x < 0 || y < 0 || x >= countsWidth || y >= countsHeight) {
+            return -1;
+        }
+        return y * countsWidth + x;
+    }
+
+    private int piecesAt(long cell) {
+        int index = countIndex(cell);
+        return index < 0 ? -1 : pieceCounts[index];
+    }
+
+    private void remember(StateSnapshot snapshot) {
+        int length = snapshot.getLength();
+        renderedRunning = isRunning;
+        renderedVersion = snapshot.getVersion();
+        renderedLength = length;
+        if (length > 0) {
+            renderedHead = cell(snapshot, length - 1);
+            renderedTail = cell(snapshot, 0);
+            renderedSecond = cell(snapshot, Math.min(1, length - 1));
+        }
+        if (renderedFruits.length < snapshot.getFruitCount()) {
+            renderedFruits = new long[snapshot.getFruitCount()];
+        }
+        for (int i = 0; i < snapshot.getFruitCount(); i++) {
+            renderedFruits[i] = fruitKey(snapshot, i);
+        }
+        renderedFruitCount = snapshot.getFruitCount();
+    }
+
+    /** Erases a cell back to the background and any fruit on it. */
+    private void clearCell(Graphics g, StateSnapshot snapshot, long cell) {
+        int x = WormBody.unpackX(cell);
+        int y = WormBody.unpackY(cell);
+        g.setColor(BACKGROUND);
+        g.fillRect(x * pieceLength, y * pieceLength, pieceLength, pieceLength);
+        int fruit = indexOfFruitCell(snapshot, cell);
+        if (fruit >= 0) {
+            drawFruit(g, fruitIcon(snapshot.getFruitType(fruit)), x, y);
+        }
+        markDirty(cell);
+    }
+
+    private void redrawPiece(Graphics g, StateSnapshot snapshot, int index) {
+        long cell = cell(snapshot, index);
+        g.setColor(BACKGROUND);
+        g.fillRect(snapshot.getX(index) * pieceLength, snapshot.getY(index) * pieceLength, pieceLength, pieceLength);
+        drawPiece(g, snapshot, index);
+        markDirty(cell);
     }
 
-    private void drawWormWithDirection(Graphics g) {
-        if (game.getWorm() == null || game.getWorm().getPieces().isEmpty()) {
+    private void markDirty(long cell) {
+        if (allDirty) {
             return;
         }
-        
-        List<Piece> pieces = game.getWorm().getPieces();
-        int size = pieces.size();
-        
-        for (int i = size - 1; i >= 0; i--) {
-            Piece piece = pieces.get(i);
-            int x = piece.getX() * pieceLength;
-            int y = piece.getY() * pieceLength;
-            Image imageToDraw = null;
-            double rotation = 0;
-            
-
-            if (i == 0  && scaledTailIcon != null) {
-                imageToDraw = scaledTailIcon;
-                rotation = calculateStartRotation(pieces, i) + Math.PI; 
-            } else if (i == size - 1 && scaledHeadIcon != null) {
-                imageToDraw = scaledHeadIcon;
-                rotation = calculateEndRotation(pieces, i) + Math.PI; 
-            } else if (scaledBodyIcon != null) {
-                imageToDraw = scaledBodyIcon;
+        if (dirtyCount == MAX_DIRTY_CELLS) {
+            // paints kept consuming ticks without an update(); just repaint it all
+            allDirty = true;
+            dirtyCount = 0;
+            return;
+        }
+        if (dirtyCount == dirtyCells.length) {
+            dirtyCells = Arrays.copyOf(dirtyCells, dirtyCount << 1);
+        }
+        dirtyCells[dirtyCount++] = cell;
+    }
+
+    private static long cell(StateSnapshot snapshot, int index) {
+        return WormBody.pack(snapshot.getX(index), snapshot.getY(index));
+    }
+
+    // a fruit is its packed cell shifted left by two, with its type in the low bits
+
+    private static long fruitKey(StateSnapshot snapshot, int index) {
+        return WormBody.pack(snapshot.getFruitX(index), snapshot.getFruitY(index)) << 2
+                | snapshot.getFruitType(index).ordinal();
+    }
+
+    private static int indexOfFruit(StateSnapshot snapshot, long key) {
+        for (int i = 0; i < snapshot.getFruitCount(); i++) {
+            if (fruitKey(snapshot, i) == key) {
+                return i;
             }
-            
-            if (imageToDraw != null) {
-                if (rotation != 0) {
-                    drawRotatedImage((Graphics2D) g, imageToDraw, x, y, rotation);
-                } else {
-                    g.drawImage(imageToDraw, x, y, this);
-                }
-            } else {
-                g.setColor(WORM_COLOR);
-                g.fillRect(x, y, pieceLength, pieceLength);
+        }
+        return -1;
+    }
+
+    private static int indexOfFruitCell(StateSnapshot snapshot, long cell) {
+        for (int i = 0; i < snapshot.getFruitCount(); i++) {
+            if (WormBody.pack(snapshot.getFruitX(i), snapshot.getFruitY(i)) == cell) {
+                return i;
             }
         }
+        return -1;
     }
 
-    private double calculateStartRotation(List<Piece> pieces, int headIndex) {
-        if (pieces.size() > 1) {
-            Piece head = pieces.get(headIndex);
-            Piece next = pieces.get(headIndex + 1);
-            
-            int dx = head.getX() - next.getX();
-            int dy = head.getY() - next.getY();
-            
-            if (dx == 1) return Math.PI;       // Facing left
-            if (dx == -1) return 0;            // Facing right  
-            if (dy == 1) return -Math.PI / 2;  // Facing up
-            if (dy == -1) return Math.PI / 2;  // Facing down
+    private int indexOfRenderedFruit(long key) {
+        for (int i = 0; i < renderedFruitCount; i++) {
+            if (renderedFruits[i] == key) {
+                return i;
+            }
         }
-        return 0; 
+        return -1;
     }
     
-    private double calculateEndRotation(List<Piece> pieces, int tailIndex) {
-        if (tailIndex > 0) {
-            Piece tail = pieces.get(tailIndex);
-            Piece prev = pieces.get(tailIndex - 1);
-            
-            int dx = tail.getX() - prev.getX();
-            int dy = tail.getY() - prev.getY();
-            
-            if (dx == 1) return 0;             // Coming from left
-            if (dx == -1) return Math.PI;      // Coming from right
-            if (dy == 1) return Math.PI / 2;   // Coming from above
-            if (dy == -1) return -Math.PI / 2; // Coming from below
-        }
-        return 0;
+    private Image fruitIcon(FruitType type) {
+        switch (type) {
+            case APPLE: return scaledAppleIcon;
+            case ORANGE: return scaledOrangeIcon;
+            default: return scaledMushroomIcon;
+        }
     }
 
-    
-    private void drawRotatedImage(Graphics2D g2d, Image image, int x, int y, double radians) {
-        g2d.translate(x + pieceLength / 2, y + pieceLength / 2);
-        g2d.rotate(radians);
-        g2d.drawImage(image, -pieceLength / 2, -pieceLength / 2, pieceLength, pieceLength, null);
-        g2d.rotate(-radians);
-        g2d.translate(-x - pieceLength / 2, -y - pieceLength / 2);
+    private void drawFruit(Graphics g, Image fruitIcon, int x, int y) {
+        if (fruitIcon != null) {
+            g.drawImage(fruitIcon, x * pieceLength, y * pieceLength, this);
+        }
     }
-    
-    private Image scaleImage(Image image, int width, int height) {
-        return image.getScaledInstance(width, height, Image.SCALE_SMOOTH);
+
+    private void drawWormWithDirection(Graphics g, StateSnapshot pieces) {
+        if (pieces.getLength() == 0) {
+            return;
+        }
+        
+        for (int i = pieces.getLength() - 1; i >= 0; i--) {
+            drawPiece(g, pieces, i);
+        }
     }
-    
+
+    private void drawPiece(Graphics g, StateSnapshot pieces, int i) {
+        int x = pieces.getX(i) * pieceLength;
+        int y = pieces.getY(i) * pieceLength;
+        Image imageToDraw;
+
+        if (i == 0) {
+            imageToDraw = sprites.getTail(SpriteAtlas.tailTurns(pieces));
+        } else if (i == pieces.getLength() - 1) {
+            imageToDraw = sprites.getHead(SpriteAtlas.headTurns(pieces));
+        } else {
+            imageToDraw = sprites.getBody(0);
+        }
+        
+        if (imageToDraw != null) {
+            g.drawImage(imageToDraw, x, y, null);
+        } else {
+            g.setColor(WORM_COLOR);
+            g.fillRect(x, y, pieceLength, pieceLength);
+        }
+    }
+
+    /**
+     * Called by the game loop after every tick. The back buffer is only
+     * ever brought up to date on the EDT, where Swing paints from it.
+     */
     public void update() {
-        checkIsRunning(); 
-        repaint();
+        if (SwingUtilities.isEventDispatchThread()) {
+            refreshAndRepaint();
+        } else if (this.updatePending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                this.updatePending.set(false);
+                refreshAndRepaint();
+            });
+        }
+    }
+
+    private void refreshAndRepaint() {
+        checkIsRunning();
+        synchronized (bufferLock) {
+            if (!refreshBackBuffer() || allDirty) {
+                repaint();
+            } else {
+                for (int i = 0; i < dirtyCount; i++) {
+                    int x = WormBody.unpackX(dirtyCells[i]);
+                    int y = WormBody.unpackY(dirtyCells[i]);
+                    repaint(x * pieceLength, y * pieceLength, pieceLength, pieceLength);
+                }
+            }
+            dirtyCount = 0;
+            allDirty = false;
+        }
     }
 
     public BufferedImage captureScreenshot() {
@@ -207,18 +418,41 @@ public class DrawingBoard extends JPanel implements Updatable {
         }
         
         BufferedImage image = new BufferedImage(getWidth(), getHeight(), BufferedImage.TYPE_INT_RGB);
+        paintInto(image);
+        return image;
+    }
+
+    /**
+     * Captures into a frame from the pool; the caller must release it back
+     * to the pool once encoded.
+     */
+    public BufferedImage captureScreenshot(FramePool pool) {
+        if (getWidth() <= 0 || getHeight() <= 0) {
+            return null;
+        }
+
+        BufferedImage image = pool.acquire(getWidth(), getHeight());
+        paintInto(image);
+        return image;
+    }
+
+    private void paintInto(BufferedImage image) {
         Graphics2D g2d = image.createGraphics();
         paintAll(g2d);
         g2d.dispose();
-        return image;
     }
 
     public void setGame(WormGame newGame) {
-        this.game = newGame;
+        synchronized (bufferLock) {
+            this.game = newGame;
+            this.needsFullRedraw = true;
+        }
+        repaint();
     }
 
     public void setIsRunning(boolean isRunning) {
         this.isRunning = isRunning;
+        repaint();
     }
 }
 
@@ -0,0 +1,122 @@
+package com.portfolio.wormgame.gui;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reusable TYPE_INT_RGB frames for screen capture, kept per frame size so
+ * boards of different sizes and piece lengths can share one pool. Callers
+ * {@link #acquire} a frame, draw and encode it, then {@link #release} it;
+ * the pool then only allocates when more frames are in flight at once than
+ * ever before, however many viewers poll it. Safe to use from any thread.
+ *
+ * Idle frames of all sizes together are held to a byte budget; when a
+ * release goes over it, frames of the least recently used sizes are
+ * dropped first.
+ */
+public final class FramePool {
+
+    private static final long DEFAULT_MAX_IDLE_BYTES = 64L << 20;
+
+    private final int maxIdlePerSize;
+    private final long maxIdleBytes;
+    // access order, so the eldest entry is the size used least recently
+    private final Map<Long, ArrayDeque<BufferedImage>> idle = new LinkedHashMap<>(16, 0.75f, true);
+    private long idleBytes;
+
+    public FramePool(int maxIdlePerSize) {
+        this(maxIdlePerSize, DEFAULT_MAX_IDLE_BYTES);
+    }
+
+    public FramePool(int maxIdlePerSize, long maxIdleBytes) {
+        if (maxIdlePerSize < 1) {
+            throw new IllegalArgumentException("A frame pool must keep at least one idle frame per size");
+        }
+        if (maxIdleBytes < 0) {
+            throw new IllegalArgumentException("The idle byte budget must not be negative");
+        }
+        this.maxIdlePerSize = maxIdlePerSize;
+        this.maxIdleBytes = maxIdleBytes;
+    }
+
+    /** A frame of exactly this size; its contents are left from earlier use. */
+    public BufferedImage acquire(int width, int height) {
+        synchronized (this.idle) {
+            ArrayDeque<BufferedImage> frames = this.idle.get(key(width, height));
+            if (frames != null && !frames.isEmpty()) {
+                BufferedImage frame = frames.pop();
+                this.idleBytes -= bytes(frame);
+                return frame;
+            }
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /** Hands a frame back; it must not be used by the caller afterwards. */
+    public void release(BufferedImage frame) {
+        if (frame == null || frame.getType() != BufferedImage.TYPE_INT_RGB) {
+            return;
+        }
+        long size = bytes(frame);
+        if (size > this.maxIdleBytes) {
+            return;
+        }
+        synchronized (this.idle) {
+            ArrayDeque<BufferedImage> frames = this.idle.computeIfAbsent(
+                    key(frame.getWidth(), frame.getHeight()), key -> new ArrayDeque<>());
+            if (frames.size() >= this.maxIdlePerSize) {
+                return;
+            }
+            frames.push(frame);
+            this.idleBytes += size;
+            evict(frames);
+        }
+    }
+
+    /** Idle frames of the given size. */
+    public int getIdle(int width, int height) {
+        synchronized (this.idle) {
+            ArrayDeque<BufferedImage> frames = this.idle.get(key(width, height));
+            return frames == null ? 0 : frames.size();
+        }
+    }
+
+    /** Bytes held by idle frames of all sizes. */
+    public long getIdleBytes() {
+        synchronized (this.idle) {
+            return this.idleBytes;
+        }
+    }
+
+    /** Drops idle frames, least recently used sizes first, until back under budget. */
+    private void evict(ArrayDeque<BufferedImage> keep) {
+        Iterator<ArrayDeque<BufferedImage>> sizes = this.idle.values().iterator();
+        while (this.idleBytes > this.maxIdleBytes && sizes.hasNext()) {
+            ArrayDeque<BufferedImage> frames = sizes.next();
+            if (frames == keep) {
+                continue;
+            }
+            while (!frames.isEmpty() && this.idleBytes > this.maxIdleBytes) {
+                this.idleBytes -= bytes(frames.pollLast());
+            }
+            if (frames.isEmpty()) {
+                sizes.remove();
+            }
+        }
+        // only frames of the size just released are left to drop
+        while (this.idleBytes > this.maxIdleBytes && !keep.isEmpty()) {
+            this.idleBytes -= bytes(keep.pollLast());
+        }
+    }
+
+    private static long bytes(BufferedImage frame) {
+        return 4L * frame.getWidth() * frame.getHeight();
+    }
+
+    private static long key(int width, int height) {
+        return ((long) width << 32) | (height & 0xffffffffL);
+    }
+}
@@ -0,0 +1,179 @@
+package com.portfolio.wormgame.gui;
+
+import com.portfolio.wormgame.domain.FruitType;
+import com.portfolio.wormgame.game.StateSnapshot;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Draws a {@link StateSnapshot} straight into an int[] RGB raster with the
+ * same sprites and layout as {@link DrawingBoard}, without Swing or a
+ * Graphics2D, so frames can be produced with java.awt.headless=true.
+ *
+ * The frame covers one cell past the right and bottom edge, where the worm
+ * can still be before it hits the wall, like the board window does. Frames
+ * can be supplied by the caller, e.g. from a {@link FramePool}, in which
+ * case one instance can render on several threads at once.
+ */
+public final class FrameRasterizer {
+
+    private static final int BACKGROUND = 0x808080;
+    private static final int WORM_COLOR = 0x1dbf44;
+
+    private final int pieceLength;
+    private final int[][] fruits = new int[FruitType.values().length][];
+    private final int[][] heads = new int[4][];
+    private final int[][] tails = new int[4][];
+
+    private BufferedImage frame;
+
+    public FrameRasterizer(int pieceLength) {
+        this(pieceLength, SpriteCache.get(SpriteCache.APPLE, pieceLength), SpriteCache.get(SpriteCache.ORANGE, pieceLength),
+                SpriteCache.get(SpriteCache.MUSHROOM, pieceLength), SpriteCache.atlas(pieceLength));
+    }
+
+    /** Draws with the given sprites, each pieceLength square or null. */
+    FrameRasterizer(int pieceLength, BufferedImage apple, BufferedImage orange, BufferedImage mushroom, SpriteAtlas atlas) {
+        this.pieceLength = pieceLength;
+        this.fruits[FruitType.APPLE.ordinal()] = pixels(apple);
+        this.fruits[FruitType.ORANGE.ordinal()] = pixels(orange);
+        this.fruits[FruitType.MUSHROOM.ordinal()] = pixels(mushroom);
+        for (int turns = 0; turns < 4; turns++) {
+            this.heads[turns] = pixels(atlas.getHead(turns));
+            this.tails[turns] = pixels(atlas.getTail(turns));
+        }
+    }
+
+    public int getPieceLength() {
+        return this.pieceLength;
+    }
+
+    public int getFrameWidth(StateSnapshot snapshot) {
+        return (snapshot.getWidth() + 1) * this.pieceLength;
+    }
+
+    public int getFrameHeight(StateSnapshot snapshot) {
+        return (snapshot.getHeight() + 1) * this.pieceLength;
+    }
+
+    /**
+     * Renders into a frame owned by this rasterizer and returns it; the
+     * frame is overwritten by the next call, so only one thread may use
+     * this method.
+     */
+    public BufferedImage render(StateSnapshot snapshot, boolean drawWorm) {
+        int width = getFrameWidth(snapshot);
+        int height = getFrameHeight(snapshot);
+        if (this.frame == null || this.frame.getWidth() != width || this.frame.getHeight() != height) {
+            this.frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        render(snapshot, drawWorm, this.frame);
+        return this.frame;
+    }
+
+    /**
+     * Renders the snapshot into the given TYPE_INT_RGB frame, which must be
+     * getFrameWidth x getFrameHeight, leaving the worm out unless drawWorm
+     * is set (the board only draws it while the game runs).
+     */
+    public void render(StateSnapshot snapshot, boolean drawWorm, BufferedImage target) {
+        int width = getFrameWidth(snapshot);
+        int height = getFrameHeight(snapshot);
+        if (target.getType() != BufferedImage.TYPE_INT_RGB || target.getWidth() != width || target.getHeight() != height) {
+            throw new IllegalArgumentException("Expected a " + width + "x" + height + " TYPE_INT_RGB frame");
+        }
+        Frame raster = new Frame(((DataBufferInt) target.getRaster().getDataBuffer()).getData(), width, height);
+        Arrays.fill(raster.pixels, BACKGROUND);
+
+        for (int i = 0; i < snapshot.getFruitCount(); i++) {
+            int[] sprite = this.fruits[snapshot.getFruitType(i).ordinal()];
+            if (sprite != null) {
+                blend(raster, sprite, snapshot.getFruitX(i), snapshot.getFruitY(i));
+            }
+        }
+        if (drawWorm) {
+            int length = snapshot.getLength();
+            // head first and tail last, like DrawingBoard
+            for (int i = length - 1; i >= 0; i--) {
+                int[] sprite = null;
+                if (i == 0) {
+                    sprite = this.tails[SpriteAtlas.tailTurns(snapshot)];
+                } else if (i == length - 1) {
+                    sprite = this.heads[SpriteAtlas.headTurns(snapshot)];
+                }
+                if (sprite != null) {
+                    blend(raster, sprite, snapshot.getX(i), snapshot.getY(i));
+                } else {
+                    fill(raster, WORM_COLOR, snapshot.getX(i), snapshot.getY(i));
+                }
+            }
+        }
+    }
+
+    /** Source-over blend of an ARGB sprite onto the cell, clipped to the frame. */
+    private void blend(Frame raster, int[] sprite, int cellX, int cellY) {
+        int size = this.pieceLength;
+        int left = cellX * size;
+        int top = cellY * size;
+        int fromX = Math.max(0, -left);
+        int toX = Math.min(size, raster.width - left);
+        int fromY = Math.max(0, -top);
+        int toY = Math.min(size, raster.height - top);
+        int[] pixels = raster.pixels;
+        for (int y = fromY; y < toY; y++) {
+            int row = (top + y) * raster.width + left;
+            for (int x = fromX; x < toX; x++) {
+                int source = sprite[y * size + x];
+                int alpha = source >>> 24;
+                if (alpha == 0xff) {
+                    pixels[row + x] = source & 0xffffff;
+                } else if (alpha != 0) {
+                    pixels[row + x] = mix(source, pixels[row + x], alpha);
+                }
+            }
+        }
+    }
+
+    private void fill(Frame raster, int rgb, int cellX, int cellY) {
+        int size = this.pieceLength;
+        int left = Math.max(0, cellX * size);
+        int right = Math.min(raster.width, cellX * size + size);
+        int top = Math.max(0, cellY * size);
+        int bottom = Math.min(raster.height, cellY * size + size);
+        for (int y = top; y < bottom; y++) {
+            if (left < right) {
+                Arrays.fill(raster.pixels, y * raster.width + left, y * raster.width + right, rgb);
+            }
+        }
+    }
+
+    private static int mix(int source, int target, int alpha) {
+        int inverse = 0xff - alpha;
+        int r = (((source >>> 16) & 0xff) * alpha + ((target >>> 16) & 0xff) * inverse + 127) / 255;
+        int g = (((source >>> 8) & 0xff) * alpha + ((target >>> 8) & 0xff) * inverse + 127) / 255;
+        int b = ((source & 0xff) * alpha + (target & 0xff) * inverse + 127) / 255;
+        return (r << 16) | (g << 8) | b;
+    }
+
+    /** The pixels of one frame, row by row. */
+    private static final class Frame {
+        final int[] pixels;
+        final int width;
+        final int height;
+
+        Frame(int[] pixels, int width, int height) {
+            this.pixels = pixels;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private int[] pixels(BufferedImage sprite) {
+        if (sprite == null) {
+            return null;
+        }
+        int size = this.pieceLength;
+        return sprite.getRGB(0, 0, size, size, null, 0, size);
+    }
+}
@@ -1,31 +1,31 @@
 package com.portfolio.wormgame.gui;
 
-import com.portfolio.wormgame.domain.Worm;
+import com.portfolio.wormgame.game.GameEngine;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import com.portfolio.wormgame.Direction;
 
 public class KeyboardListener implements KeyListener {
     
-    private Worm worm;
+    private GameEngine engine;
     
-    public KeyboardListener(Worm worm) {
-        this.worm = worm;
+    public KeyboardListener(GameEngine engine) {
+        this.engine = engine;
     }
     
     public void keyPressed(KeyEvent e) {
         switch (e.getKeyCode()) {
             case KeyEvent.VK_LEFT:
-                this.worm.setDirection(Direction.LEFT);
+                this.engine.submitInput(Direction.LEFT);
                 break;
             case KeyEvent.VK_RIGHT:
-                this.worm.setDirection(Direction.RIGHT);
+                this.engine.submitInput(Direction.RIGHT);
                 break;
             case KeyEvent.VK_UP:
-                this.worm.setDirection(Direction.UP);
+                this.engine.submitInput(Direction.UP);
                 break;
             case KeyEvent.VK_DOWN:
-                this.worm.setDirection(Direction.DOWN);
+                this.engine.submitInput(Direction.DOWN);
                 break;
             default:
                 break;
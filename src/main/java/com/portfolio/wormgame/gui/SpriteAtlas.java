@@ -0,0 +1,109 @@
+package com.portfolio.wormgame.gui;
+
+import com.portfolio.wormgame.game.StateSnapshot;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * The worm sprites scaled to one piece length and pre-rendered in all four
+ * quarter-turn rotations, so drawing a segment is a plain untransformed
+ * copy. Rotations are counted clockwise from the sprite as drawn in its
+ * icon file. A sprite whose icon could not be loaded is null.
+ */
+public final class SpriteAtlas {
+
+    private final int pieceLength;
+    private final BufferedImage[] head;
+    private final BufferedImage[] tail;
+    private final BufferedImage[] body;
+
+    public SpriteAtlas(int pieceLength, Image head, Image tail, Image body) {
+        this.pieceLength = pieceLength;
+        this.head = rotations(head, pieceLength);
+        this.tail = rotations(tail, pieceLength);
+        this.body = rotations(body, pieceLength);
+    }
+
+    public int getPieceLength() {
+        return this.pieceLength;
+    }
+
+    public BufferedImage getHead(int quarterTurns) {
+        return pick(this.head, quarterTurns);
+    }
+
+    public BufferedImage getTail(int quarterTurns) {
+        return pick(this.tail, quarterTurns);
+    }
+
+    public BufferedImage getBody(int quarterTurns) {
+        return pick(this.body, quarterTurns);
+    }
+
+    // rotations include the half turn the icons need
+
+    /** Rotation of the tail sprite, from the piece after it. */
+    static int tailTurns(StateSnapshot pieces) {
+        if (pieces.getLength() > 1) {
+            int dx = pieces.getX(0) - pieces.getX(1);
+            int dy = pieces.getY(0) - pieces.getY(1);
+
+            if (dx == 1) return 0;   // Facing left
+            if (dx == -1) return 2;  // Facing right
+            if (dy == 1) return 1;   // Facing up
+            if (dy == -1) return 3;  // Facing down
+        }
+        return 2;
+    }
+
+    /** Rotation of the head sprite, from the piece before it. */
+    static int headTurns(StateSnapshot pieces) {
+        int head = pieces.getLength() - 1;
+        if (head > 0) {
+            int dx = pieces.getX(head) - pieces.getX(head - 1);
+            int dy = pieces.getY(head) - pieces.getY(head - 1);
+
+            if (dx == 1) return 2;   // Coming from left
+            if (dx == -1) return 0;  // Coming from right
+            if (dy == 1) return 3;   // Coming from above
+            if (dy == -1) return 1;  // Coming from below
+        }
+        return 2;
+    }
+
+    private static BufferedImage pick(BufferedImage[] sprites, int quarterTurns) {
+        return sprites == null ? null : sprites[quarterTurns & 3];
+    }
+
+    private static BufferedImage[] rotations(Image source, int size) {
+        if (source == null || size <= 0) {
+            return null;
+        }
+        BufferedImage[] sprites = new BufferedImage[4];
+        for (int turns = 0; turns < 4; turns++) {
+            BufferedImage sprite = createCompatibleImage(size);
+            Graphics2D g2d = sprite.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // quadrant rotations are exact, so the sprite is only resampled once, by the scale
+            g2d.transform(AffineTransform.getQuadrantRotateInstance(turns, size / 2.0, size / 2.0));
+            g2d.drawImage(source, 0, 0, size, size, null);
+            g2d.dispose();
+            sprites[turns] = sprite;
+        }
+        return sprites;
+    }
+
+    static BufferedImage createCompatibleImage(int size) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().createCompatibleImage(size, size, Transparency.TRANSLUCENT);
+    }
+}
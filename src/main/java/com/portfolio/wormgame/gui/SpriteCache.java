@@ -0,0 +1,117 @@
+package com.portfolio.wormgame.gui;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.imageio.ImageIO;
+
+/**
+ * Process-wide cache of the game icons. Each icon file is decoded once, and
+ * each (icon, size) pair is scaled once into a compatible BufferedImage
+ * shared by every board and session. Call {@link #warm(int)} at startup so
+ * the first frames don't pay for decoding.
+ */
+public final class SpriteCache {
+
+    public static final String APPLE = "apple.jpg";
+    public static final String ORANGE = "orange.jpg";
+    public static final String MUSHROOM = "mushroom.jpg";
+    public static final String HEAD = "snake-head.png";
+    public static final String TAIL = "snake-tail.png";
+
+    private static final String ICON_PATH = "static/icons/";
+    // stands in for icons that could not be loaded, which the maps can't hold as null
+    private static final BufferedImage MISSING = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+    private static final ConcurrentHashMap<String, BufferedImage> SOURCES = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, BufferedImage> SCALED = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Integer, SpriteAtlas> ATLASES = new ConcurrentHashMap<>();
+
+    private SpriteCache() {
+    }
+
+    /** The icon scaled to size x size, or null if it could not be loaded. */
+    public static BufferedImage get(String icon, int size) {
+        BufferedImage image = SCALED.computeIfAbsent(icon + "@" + size, key -> {
+            BufferedImage source = source(icon);
+            return source == MISSING || size <= 0 ? MISSING : scale(source, size);
+        });
+        return image == MISSING ? null : image;
+    }
+
+    /** The rotated worm sprites for one piece length. */
+    public static SpriteAtlas atlas(int size) {
+        // there is no body icon; body pieces are filled with a plain colour
+        return ATLASES.computeIfAbsent(size, key -> new SpriteAtlas(size, get(HEAD, size), get(TAIL, size), null));
+    }
+
+    /** Decodes and scales every icon for the given piece length. */
+    public static void warm(int size) {
+        get(APPLE, size);
+        get(ORANGE, size);
+        get(MUSHROOM, size);
+        atlas(size);
+    }
+
+    private static BufferedImage source(String icon) {
+        return SOURCES.computeIfAbsent(icon, SpriteCache::decode);
+    }
+
+    private static BufferedImage decode(String icon) {
+        String resourcePath = ICON_PATH + icon;
+        try {
+            URL imageUrl = SpriteCache.class.getClassLoader().getResource(resourcePath);
+            if (imageUrl != null) {
+                BufferedImage image = ImageIO.read(imageUrl);
+                if (image != null) {
+                    return image;
+                }
+            } else {
+                System.out.println("✗ Not found in classpath: " + resourcePath);
+            }
+
+            // (for development)
+            File file = new File("src/main/resources/" + resourcePath);
+            if (file.exists()) {
+                BufferedImage image = ImageIO.read(file);
+                if (image != null) {
+                    System.out.println("✓ Successfully loaded " + icon + " from filesystem: " + file.getAbsolutePath());
+                    return image;
+                }
+            } else {
+                System.out.println("✗ Not found in filesystem: " + file.getPath());
+            }
+        } catch (Exception e) {
+            System.err.println("Error loading " + icon + " icon: " + e.getMessage());
+        }
+        return MISSING;
+    }
+
+    /**
+     * Bicubic scale, halving first while the source is more than twice the
+     * target so large icons are not aliased by a single step.
+     */
+    private static BufferedImage scale(BufferedImage source, int size) {
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        while (width > size * 2 || height > size * 2) {
+            width = Math.max(size, width / 2);
+            height = Math.max(size, height / 2);
+            current = draw(current, width, height, new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB));
+        }
+        return draw(current, size, size, SpriteAtlas.createCompatibleImage(size));
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, BufferedImage target) {
+        Graphics2D g2d = target.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2d.drawImage(source, 0, 0, width, height, null);
+        g2d.dispose();
+        return target;
+    }
+}
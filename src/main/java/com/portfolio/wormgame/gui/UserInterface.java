@@ -3,7 +3,6 @@ package com.portfolio.wormgame.gui;
 import java.awt.Container;
 import java.awt.Dimension;
 import javax.swing.JFrame;
-import javax.swing.Timer;
 import java.awt.event.KeyListener; 
 import javax.swing.WindowConstants;
 import com.portfolio.wormgame.game.WormGame;
@@ -41,7 +40,7 @@ public class UserInterface implements Runnable {
         this.db = new DrawingBoard(game, sideLength);
         container.add(db);
         
-        KeyboardListener kl = new KeyboardListener(game.getWorm());
+        KeyboardListener kl = new KeyboardListener(game.getEngine());
         frame.addKeyListener(kl);
     }
     
@@ -63,9 +62,7 @@ public class UserInterface implements Runnable {
 
     public void stopGame() {
         if (this.game != null) {
-            if (this.game instanceof Timer) {
-                ((Timer) this.game).stop();
-            }
+            this.game.stop();
             
             WormGame newGame = new WormGame(game.getWidth(), game.getHeight());
             
@@ -77,7 +74,7 @@ public class UserInterface implements Runnable {
                 for (KeyListener listener : frame.getKeyListeners()) {
                     frame.removeKeyListener(listener);
                 }
-                KeyboardListener newKl = new KeyboardListener(newGame.getWorm());
+                KeyboardListener newKl = new KeyboardListener(newGame.getEngine());
                 frame.addKeyListener(newKl);
             }
             
@@ -4,8 +4,13 @@ import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
 import org.eclipse.jetty.servlet.DefaultServlet;
+import com.portfolio.wormgame.gui.FramePool;
+import com.portfolio.wormgame.gui.FrameRasterizer;
 import com.portfolio.wormgame.gui.UserInterface;
 import com.portfolio.wormgame.game.WormGame;
+import com.portfolio.wormgame.game.StateSnapshot;
+import com.portfolio.wormgame.game.GameSession;
+import com.portfolio.wormgame.game.SessionManager;
 import com.portfolio.wormgame.Direction;
 
 import javax.imageio.ImageIO;
@@ -13,8 +18,8 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.awt.GraphicsEnvironment;
 import java.awt.image.BufferedImage;
-import javax.swing.Timer;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -23,15 +28,32 @@ import java.nio.charset.StandardCharsets;
 import java.net.URL; 
 
 public class VncStreamServer {
+    private static final int PIECE_LENGTH = 20;
+    private static final int FRAMES_PER_SIZE = 8;
+    // hosted sessions, overridable with -Dwormgame.maxSessions
+    private static final int DEFAULT_MAX_SESSIONS = 256;
+
     private Server webServer;
     private UserInterface ui;
     private int webPort;
     private WormGame game;
+    private SessionManager sessions;
+    private int maxSessions = Integer.getInteger("wormgame.maxSessions", DEFAULT_MAX_SESSIONS);
 
     public VncStreamServer(UserInterface ui, int webPort, WormGame game) {
+        this(ui, webPort, game, null);
+    }
+
+    public VncStreamServer(UserInterface ui, int webPort, WormGame game, SessionManager sessions) {
         this.ui = ui;
         this.webPort = webPort;
         this.game = game;
+        this.sessions = sessions;
+    }
+
+    /** Most sessions /api/sessions will create; later creates get 503 until some are removed. */
+    public void setMaxSessions(int maxSessions) {
+        this.maxSessions = maxSessions;
     }
 
     public void start() throws Exception {
@@ -65,10 +87,14 @@ public class VncStreamServer {
         context.addServlet(defaultHolder, "/");
         
         // API servlets
-        context.addServlet(new ServletHolder(new ScreenCaptureServlet(ui)), "/screen");
+        context.addServlet(new ServletHolder(new ScreenCaptureServlet(ui, game)), "/screen");
         context.addServlet(new ServletHolder(new GameInfoServlet()), "/api/game-info");
-        context.addServlet(new ServletHolder(new GameControlServlet(ui)), "/api/control");
+        context.addServlet(new ServletHolder(new GameControlServlet(ui, game)), "/api/control");
         context.addServlet(new ServletHolder(new GameScoreServlet(game, ui)), "/api/score");
+        context.addServlet(new ServletHolder(new LoopMetricsServlet(ui, game)), "/api/loop-metrics");
+        if (sessions != null) {
+            context.addServlet(new ServletHolder(new SessionServlet(sessions, maxSessions)), "/api/sessions");
+        }
         
         webServer.setHandler(context);
         webServer.start();
@@ -99,18 +125,22 @@ public class VncStreamServer {
             
             int score = 0;
             String status = "started"; 
-            this.game = this.ui.getWormGame();
+            if (this.ui != null) {
+                this.game = this.ui.getWormGame();
+            }
             if (this.game != null) {
-                if (!this.game.continues()) {
-                    status = "game_over";
-                } 
-                else if (this.game.continues() && this.game.getWorm() != null && this.game.getWorm().getLength() > 3) {
-                    score = this.game.getWorm().getLength() - 3;
-                    status = "running";
-                }
-                else if (this.game.continues()) {
-                    status = "running";
-                    score = 0;
+                try (StateSnapshot snapshot = this.game.getEngine().acquireSnapshot()) {
+                    if (!snapshot.continues()) {
+                        status = "game_over";
+                    } 
+                    else if (snapshot.getLength() > 3) {
+                        score = snapshot.getLength() - 3;
+                        status = "running";
+                    }
+                    else {
+                        status = "running";
+                        score = 0;
+                    }
                 }
             }
             
@@ -119,6 +149,154 @@ public class VncStreamServer {
         }
     }
 
+    // Servlet for game loop timing (tick overruns, catch-up and dropped ticks)
+    public static class LoopMetricsServlet extends HttpServlet {
+        private final UserInterface ui;
+        private final WormGame game;
+
+        public LoopMetricsServlet(UserInterface ui, WormGame game) {
+            this.ui = ui;
+            this.game = game;
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+                throws ServletException, IOException {
+            resp.setContentType("application/json");
+            resp.setCharacterEncoding("UTF-8");
+            // without a GUI the server drives the game it was started with
+            WormGame current = this.ui != null ? this.ui.getWormGame() : this.game;
+            if (current == null) {
+                resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                resp.getWriter().write("{\"status\":\"error\", \"message\":\"Game not available\"}");
+                return;
+            }
+            resp.getWriter().write(current.getLoopMetrics().toJson());
+        }
+    }
+
+    // Servlet for headless games hosted by the session manager
+    public static class SessionServlet extends HttpServlet {
+        private final SessionManager sessions;
+        private final int maxSessions;
+
+        public SessionServlet(SessionManager sessions, int maxSessions) {
+            this.sessions = sessions;
+            this.maxSessions = maxSessions;
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+                throws ServletException, IOException {
+            resp.setContentType("application/json");
+            resp.setCharacterEncoding("UTF-8");
+            String id = req.getParameter("id");
+            if (id == null) {
+                resp.getWriter().write(String.format("{\"sessions\": %d, \"shards\": %d}",
+                        this.sessions.size(), this.sessions.getShardCount()));
+                return;
+            }
+            GameSession session = findSession(id, resp);
+            if (session != null) {
+                resp.getWriter().write(toJson(session));
+            }
+        }
+
+        @Override
+        protected void doPost(HttpServletRequest req, HttpServletResponse resp)
+                throws ServletException, IOException {
+            resp.setContentType("application/json");
+            resp.setCharacterEncoding("UTF-8");
+            String action = req.getParameter("action");
+            if ("create".equals(action)) {
+                int width = intParameter(req, "width", 20);
+                int height = intParameter(req, "height", 20);
+                GameSession session = null;
+                // checked and created together so concurrent creates can't overshoot the cap
+                synchronized (this) {
+                    if (this.sessions.size() < this.maxSessions) {
+                        session = this.sessions.create(width, height);
+                    }
+                }
+                if (session == null) {
+                    resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                    resp.setHeader("Retry-After", "30");
+                    resp.getWriter().write("{\"status\":\"error\", \"message\":\"Too many sessions\"}");
+                    return;
+                }
+                session.setAutopilot("true".equals(req.getParameter("bot")));
+                resp.getWriter().write(toJson(session));
+                return;
+            }
+
+            GameSession session = findSession(req.getParameter("id"), resp);
+            if (session == null) {
+                return;
+            }
+            if ("remove".equals(action)) {
+                this.sessions.remove(session.getId());
+                resp.getWriter().write("{\"status\":\"success\", \"message\":\"Session removed\"}");
+                return;
+            }
+            Direction direction = parseDirection(action);
+            if (direction == null) {
+                resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                resp.getWriter().write("{\"status\":\"error\", \"message\":\"Unknown action\"}");
+                return;
+            }
+            session.setDirection(direction);
+            resp.getWriter().write(toJson(session));
+        }
+
+        private GameSession findSession(String id, HttpServletResponse resp) throws IOException {
+            GameSession session = null;
+            try {
+                session = id != null ? this.sessions.get(Long.parseLong(id)) : null;
+            } catch (NumberFormatException e) {
+                // reported as not found below
+            }
+            if (session == null) {
+                resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                resp.getWriter().write("{\"status\":\"error\", \"message\":\"Session not found\"}");
+            }
+            return session;
+        }
+
+        private static int intParameter(HttpServletRequest req, String name, int defaultValue) {
+            String value = req.getParameter(name);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Math.max(4, Math.min(1000, Integer.parseInt(value)));
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+
+        private static Direction parseDirection(String action) {
+            if (action == null) {
+                return null;
+            }
+            switch (action) {
+                case "up": return Direction.UP;
+                case "down": return Direction.DOWN;
+                case "left": return Direction.LEFT;
+                case "right": return Direction.RIGHT;
+                default: return null;
+            }
+        }
+
+        private static String toJson(GameSession session) {
+            try (StateSnapshot snapshot = session.getEngine().acquireSnapshot()) {
+                int length = snapshot.getLength();
+                return String.format("{\"id\": %d, \"score\": %d, \"length\": %d, \"tick\": %d, \"bot\": %b, \"status\": \"%s\"}",
+                        session.getId(), Math.max(0, length - 3), length, snapshot.getVersion(),
+                        session.isAutopilot(), snapshot.continues() ? "running" : "game_over");
+            }
+        }
+    }
+
     // Servlet to provide game connection info
     public static class GameInfoServlet extends HttpServlet {
         @Override
@@ -134,32 +312,52 @@ public class VncStreamServer {
         }
     }
 
-    // Servlet for screen capture
+    // Servlet for screen capture; without a display, frames are rasterized from the game state
     public static class ScreenCaptureServlet extends HttpServlet {
         private final UserInterface ui;
+        private final WormGame game;
+        private final FrameRasterizer rasterizer = new FrameRasterizer(PIECE_LENGTH);
+        // each viewer polls every 100 ms; frames are reused instead of allocated per request
+        private final FramePool frames = new FramePool(FRAMES_PER_SIZE);
         
-        public ScreenCaptureServlet(UserInterface ui) {
+        public ScreenCaptureServlet(UserInterface ui, WormGame game) {
             this.ui = ui;
+            this.game = game;
         }
         
         @Override
         protected void doGet(HttpServletRequest req, HttpServletResponse resp) 
                 throws ServletException, IOException {
             try {
-                if (ui != null && ui.getDrawingBoard() != null) {
-                    BufferedImage screenshot = ui.getDrawingBoard().captureScreenshot();
+                ByteArrayOutputStream baos = null;
+                BufferedImage screenshot = null;
+                try {
+                    if (ui != null && ui.getDrawingBoard() != null && !GraphicsEnvironment.isHeadless()) {
+                        screenshot = ui.getDrawingBoard().captureScreenshot(frames);
+                    } else {
+                        WormGame current = ui != null && ui.getWormGame() != null ? ui.getWormGame() : game;
+                        if (current != null) {
+                            try (StateSnapshot snapshot = current.getEngine().acquireSnapshot()) {
+                                screenshot = frames.acquire(rasterizer.getFrameWidth(snapshot), rasterizer.getFrameHeight(snapshot));
+                                rasterizer.render(snapshot, current.isRunning(), screenshot);
+                            }
+                        }
+                    }
                     if (screenshot != null) {
-                        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                        baos = new ByteArrayOutputStream();
                         ImageIO.write(screenshot, "png", baos);
-                        
-                        resp.setContentType("image/png");
-                        resp.setHeader("Cache-Control", "no-cache, no-store, must-revalidate");
-                        resp.setHeader("Pragma", "no-cache");
-                        resp.setHeader("Expires", "0");
-                        
-                        resp.getOutputStream().write(baos.toByteArray());
-                        return;
                     }
+                } finally {
+                    frames.release(screenshot);
+                }
+                if (baos != null) {
+                    resp.setContentType("image/png");
+                    resp.setHeader("Cache-Control", "no-cache, no-store, must-revalidate");
+                    resp.setHeader("Pragma", "no-cache");
+                    resp.setHeader("Expires", "0");
+                    
+                    resp.getOutputStream().write(baos.toByteArray());
+                    return;
                 }
                 resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
                 resp.getWriter().write("Screen not available");
@@ -173,9 +371,11 @@ public class VncStreamServer {
     // Servlet for game control
     public static class GameControlServlet extends HttpServlet {
       private final UserInterface ui;
+      private final WormGame game;
       
-      public GameControlServlet(UserInterface ui) {
+      public GameControlServlet(UserInterface ui, WormGame game) {
           this.ui = ui;
+          this.game = game;
       }
       
       @Override
@@ -185,53 +385,57 @@ public class VncStreamServer {
               String action = req.getParameter("action");
               resp.setContentType("application/json");
               
-              if (this.ui == null || this.ui.getWormGame() == null) {
+              // without a GUI the server drives the game it was started with
+              WormGame current = this.ui != null ? this.ui.getWormGame() : this.game;
+              if (current == null) {
                   resp.getWriter().println("{\"status\":\"error\", \"message\":\"Game not available\"}");
                   return;
               }
               
               switch (action) {
                   case "start":
-                      this.ui.getWormGame().start();
+                      current.start();
                       resp.getWriter().println("{\"status\":\"success\", \"message\":\"Game started\"}");
                       break;
                       
                   case "pause":
-                      if (this.ui.getWormGame() instanceof Timer) {
-                          ((Timer) this.ui.getWormGame()).stop();
-                      }
+                      current.stop();
                       resp.getWriter().println("{\"status\":\"success\", \"message\":\"Game paused\"}");
                       break;
                       
                   case "restart":
+                      if (this.ui == null) {
+                          resp.getWriter().println("{\"status\":\"error\", \"message\":\"Restart needs the GUI\"}");
+                          break;
+                      }
                       this.ui.stopAndCreateNewGame();
                       resp.getWriter().println("{\"status\":\"success\", \"message\":\"Game stopped and reset\"}");
                       break;
 
                   case "up":
-                    if (this.ui.getWormGame() != null) {
-                        this.ui.getWormGame().getWorm().setDirection(Direction.UP);
+                    if (current != null) {
+                        current.getEngine().submitInput(Direction.UP);
                         resp.getWriter().println("{\"status\":\"success\", \"message\":\"Going up\"}");
                     }
                     break;
                     
                   case "down":
-                      if (this.ui.getWormGame() != null) {
-                          this.ui.getWormGame().getWorm().setDirection(Direction.DOWN);
+                      if (current != null) {
+                          current.getEngine().submitInput(Direction.DOWN);
                           resp.getWriter().println("{\"status\":\"success\", \"message\":\"Going down\"}");
                       }
                       break;
                       
                   case "left":
-                      if (this.ui.getWormGame() != null) {
-                          this.ui.getWormGame().getWorm().setDirection(Direction.LEFT);
+                      if (current != null) {
+                          current.getEngine().submitInput(Direction.LEFT);
                           resp.getWriter().println("{\"status\":\"success\", \"message\":\"Going left\"}");
                       }
                       break;
                       
                   case "right":
-                    if (this.ui.getWormGame() != null) {
-                        this.ui.getWormGame().getWorm().setDirection(Direction.RIGHT);
+                    if (current != null) {
+                        current.getEngine().submitInput(Direction.RIGHT);
                         resp.getWriter().println("{\"status\":\"success\", \"message\":\"Going right\"}");
                     }
                     break;
@@ -0,0 +1,84 @@
+package com.portfolio.wormgame.domain;
+
+import com.portfolio.wormgame.game.GameEngine;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ChunkedOccupancyTest {
+
+    @Test
+    public void matchesDenseGrid() {
+        int width = 150;
+        int height = 130;
+        OccupancyGrid dense = new OccupancyGrid(width, height);
+        ChunkedOccupancy sparse = new ChunkedOccupancy(width, height);
+        Random random = new Random(7);
+        long[] pieces = new long[4000];
+        int size = 0;
+        for (int i = 0; i < 200000; i++) {
+            if (size < pieces.length && (size == 0 || random.nextBoolean())) {
+                int x = random.nextInt(width + 3) - 1;
+                int y = random.nextInt(height + 3) - 1;
+                dense.add(x, y);
+                sparse.add(x, y);
+                pieces[size++] = WormBody.pack(x, y);
+            } else {
+                int at = random.nextInt(size);
+                long cell = pieces[at];
+                pieces[at] = pieces[--size];
+                dense.remove(WormBody.unpackX(cell), WormBody.unpackY(cell));
+                sparse.remove(WormBody.unpackX(cell), WormBody.unpackY(cell));
+            }
+        }
+        for (int y = -1; y <= height + 1; y++) {
+            for (int x = -1; x <= width + 1; x++) {
+                assertEquals(dense.count(x, y), sparse.count(x, y));
+            }
+        }
+        assertEquals((long) width * height - dense.getFreeCells().size(), sparse.getTakenCells());
+    }
+
+    @Test
+    public void dropsChunksOnceEmpty() {
+        ChunkedOccupancy occupancy = new ChunkedOccupancy(100000, 100000);
+        for (int i = 0; i < 1000; i++) {
+            occupancy.add(i * 97, i * 89);
+        }
+        occupancy.reserve(5, 5);
+        assertTrue(occupancy.getChunkCount() > 900);
+        for (int i = 0; i < 1000; i++) {
+            occupancy.remove(i * 97, i * 89);
+        }
+        assertEquals(1, occupancy.getChunkCount());
+        assertEquals(0, occupancy.count(5, 5));
+        occupancy.release(5, 5);
+        assertEquals(0, occupancy.getChunkCount());
+        assertEquals(0, occupancy.getTakenCells());
+    }
+
+    @Test
+    public void spawnsOnlyOnFreeCells() {
+        ChunkedOccupancy occupancy = new ChunkedOccupancy(3, 3);
+        Random random = new Random(1);
+        for (int i = 0; i < 8; i++) {
+            long cell = occupancy.randomFreeCell(random);
+            assertNotEquals(Occupancy.NO_CELL, cell);
+            assertFalse(occupancy.isOccupied(WormBody.unpackX(cell), WormBody.unpackY(cell)));
+            occupancy.reserve(WormBody.unpackX(cell), WormBody.unpackY(cell));
+        }
+        long last = occupancy.randomFreeCell(random);
+        occupancy.add(WormBody.unpackX(last), WormBody.unpackY(last));
+        assertEquals(Occupancy.NO_CELL, occupancy.randomFreeCell(random));
+    }
+
+    @Test
+    public void hugeBoardGameRuns() {
+        GameEngine engine = new GameEngine(100000, 100000, 3L);
+        for (int i = 0; i < 10000 && engine.continues(); i++) {
+            engine.step(null);
+        }
+        assertTrue(engine.getTick() > 0);
+        assertNotNull(engine.getApple());
+    }
+}
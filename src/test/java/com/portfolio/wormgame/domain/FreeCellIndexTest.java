@@ -0,0 +1,101 @@
+package com.portfolio.wormgame.domain;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class FreeCellIndexTest {
+
+    @Test
+    public void startsWithEveryCellFree() {
+        FreeCellIndex index = new FreeCellIndex(4, 3);
+        assertEquals(12, index.size());
+        assertTrue(index.contains(3, 2));
+        assertFalse(index.contains(4, 0));
+        assertFalse(index.contains(-1, 0));
+    }
+
+    @Test
+    public void swapRemoveKeepsTheOtherCells() {
+        FreeCellIndex index = new FreeCellIndex(3, 3);
+        index.remove(0, 0);
+        index.remove(1, 1);
+        index.remove(1, 1);
+        index.remove(5, 5);
+
+        assertEquals(7, index.size());
+        assertFalse(index.contains(0, 0));
+        assertFalse(index.contains(1, 1));
+        assertEquals(7, drawAll(index).size());
+
+        index.add(1, 1);
+        index.add(1, 1);
+        assertEquals(8, index.size());
+        assertTrue(index.contains(1, 1));
+        assertTrue(drawAll(index).contains(4));
+    }
+
+    @Test
+    public void emptiesAndRefillsCompletely() {
+        FreeCellIndex index = new FreeCellIndex(5, 4);
+        Random random = new Random(9);
+        while (!index.isFull()) {
+            int cell = index.randomCell(random);
+            index.remove(index.cellX(cell), index.cellY(cell));
+        }
+        assertEquals(-1, index.randomCell(random));
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 5; x++) {
+                index.add(x, y);
+            }
+        }
+        assertEquals(20, index.size());
+        assertEquals(20, drawAll(index).size());
+    }
+
+    @Test
+    public void matchesSetUnderRandomUse() {
+        FreeCellIndex index = new FreeCellIndex(16, 9);
+        Set<Integer> expected = new HashSet<>();
+        for (int cell = 0; cell < 16 * 9; cell++) {
+            expected.add(cell);
+        }
+        Random random = new Random(21);
+        for (int i = 0; i < 20000; i++) {
+            int x = random.nextInt(16);
+            int y = random.nextInt(9);
+            if (random.nextBoolean()) {
+                index.remove(x, y);
+                expected.remove(y * 16 + x);
+            } else {
+                index.add(x, y);
+                expected.add(y * 16 + x);
+            }
+            assertEquals(expected.size(), index.size());
+            if (!expected.isEmpty()) {
+                assertTrue(expected.contains(index.randomCell(random)));
+            }
+        }
+        for (int cell = 0; cell < 16 * 9; cell++) {
+            assertEquals(expected.contains(cell), index.contains(index.cellX(cell), index.cellY(cell)));
+        }
+    }
+
+    /** Every free cell, drawn out one by one and then put back. */
+    private static Set<Integer> drawAll(FreeCellIndex index) {
+        Set<Integer> cells = new HashSet<>();
+        Random random = new Random(1);
+        int size = index.size();
+        for (int i = 0; i < size; i++) {
+            int cell = index.randomCell(random);
+            cells.add(cell);
+            index.remove(index.cellX(cell), index.cellY(cell));
+        }
+        for (int cell : cells) {
+            index.add(index.cellX(cell), index.cellY(cell));
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,41 @@
+package com.portfolio.wormgame.domain;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class FruitStoreTest {
+
+    @Test
+    public void matchesMapUnderRandomUse() {
+        FruitStore store = new FruitStore();
+        Map<Long, FruitType> expected = new HashMap<>();
+        Random random = new Random(11);
+        FruitType[] types = FruitType.values();
+        for (int i = 0; i < 100000; i++) {
+            int x = random.nextInt(60);
+            int y = random.nextInt(60);
+            long cell = WormBody.pack(x, y);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(cell), store.remove(x, y));
+            } else {
+                FruitType type = types[random.nextInt(types.length)];
+                boolean added = !expected.containsKey(cell);
+                if (added) {
+                    expected.put(cell, type);
+                }
+                assertEquals(added, store.add(x, y, type));
+            }
+        }
+        assertEquals(expected.size(), store.size());
+        for (FruitType type : types) {
+            for (int i = 0; i < store.count(type); i++) {
+                long cell = store.cell(type, i);
+                assertEquals(type, expected.get(cell));
+                assertEquals(type, store.get(WormBody.unpackX(cell), WormBody.unpackY(cell)));
+            }
+        }
+    }
+}
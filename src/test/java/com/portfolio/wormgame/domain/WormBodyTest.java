@@ -0,0 +1,104 @@
+package com.portfolio.wormgame.domain;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class WormBodyTest {
+
+    @Test
+    public void packKeepsNegativeCoordinates() {
+        long cell = WormBody.pack(-1, -7);
+        assertEquals(-1, WormBody.unpackX(cell));
+        assertEquals(-7, WormBody.unpackY(cell));
+        assertNotEquals(WormBody.pack(0, -1), WormBody.pack(-1, 0));
+    }
+
+    @Test
+    public void wrapsAroundWithoutGrowing() {
+        WormBody body = new WormBody();
+        for (int i = 0; i < 10; i++) {
+            body.addHead(i, 0);
+        }
+        // walks the window past the end of the 16-cell ring several times
+        for (int i = 10; i < 100; i++) {
+            body.addHead(i, 0);
+            assertEquals(i - 10, WormBody.unpackX(body.removeTail()));
+            assertEquals(10, body.size());
+            assertEquals(i - 9, body.getX(0));
+            assertEquals(i, WormBody.unpackX(body.head()));
+        }
+    }
+
+    @Test
+    public void growsWhileWrappedAndKeepsOrder() {
+        WormBody body = new WormBody();
+        for (int i = 0; i < 12; i++) {
+            body.addHead(i, i);
+        }
+        for (int i = 0; i < 8; i++) {
+            body.removeTail();
+        }
+        // the ring is wrapped when it has to double
+        for (int i = 12; i < 60; i++) {
+            body.addHead(i, i);
+        }
+        assertEquals(52, body.size());
+        for (int i = 0; i < body.size(); i++) {
+            assertEquals(i + 8, body.getX(i));
+            assertEquals(i + 8, body.getY(i));
+        }
+        long[] copy = new long[body.size()];
+        body.copyTo(copy);
+        for (int i = 0; i < copy.length; i++) {
+            assertEquals(body.get(i), copy[i]);
+        }
+    }
+
+    @Test
+    public void matchesDequeUnderRandomUse() {
+        WormBody body = new WormBody(4);
+        ArrayDeque<Long> expected = new ArrayDeque<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 20000; i++) {
+            if (!expected.isEmpty() && random.nextInt(5) < 2) {
+                assertEquals((long) expected.removeFirst(), body.removeTail());
+            } else {
+                int x = random.nextInt(200) - 100;
+                int y = random.nextInt(200) - 100;
+                body.addHead(x, y);
+                expected.addLast(WormBody.pack(x, y));
+            }
+            assertEquals(expected.size(), body.size());
+        }
+        Iterator<Long> cells = expected.iterator();
+        for (int i = 0; i < body.size(); i++) {
+            assertEquals((long) cells.next(), body.get(i));
+        }
+    }
+
+    @Test
+    public void clearEmptiesTheBody() {
+        WormBody body = new WormBody();
+        body.addHead(1, 2);
+        body.addHead(1, 3);
+        body.clear();
+        assertTrue(body.isEmpty());
+        body.addHead(4, 5);
+        assertEquals(WormBody.pack(4, 5), body.tail());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void removingFromAnEmptyBodyFails() {
+        new WormBody().removeTail();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getChecksTheIndex() {
+        WormBody body = new WormBody();
+        body.addHead(0, 0);
+        body.get(1);
+    }
+}
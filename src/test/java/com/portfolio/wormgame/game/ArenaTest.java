@@ -0,0 +1,149 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import com.portfolio.wormgame.domain.FruitType;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ArenaTest {
+
+    @Test
+    public void wormDiesOnlyPastTheCellBeyondTheWall() {
+        Arena arena = new Arena(5, 5, 0, 1L);
+        ArenaWorm worm = arena.addWorm(4, 2, Direction.RIGHT);
+
+        arena.step(null);
+        assertTrue(worm.isAlive());
+        assertEquals(5, worm.getWorm().getHeadX());
+
+        arena.step(null);
+        assertFalse(worm.isAlive());
+        assertEquals(2, worm.getDiedOnTick());
+        assertEquals(ArenaWorm.NOBODY, worm.getKilledBy());
+        assertEquals(0, arena.getLivingCount());
+    }
+
+    @Test
+    public void headsMeetingInOneCellBothDie() {
+        Arena arena = new Arena(5, 5, 0, 1L);
+        ArenaWorm left = arena.addWorm(1, 2, Direction.RIGHT);
+        ArenaWorm right = arena.addWorm(3, 2, Direction.LEFT);
+
+        arena.step(null);
+
+        assertFalse(left.isAlive());
+        assertFalse(right.isAlive());
+        assertEquals(ArenaWorm.NOBODY, left.getKilledBy());
+        assertEquals(ArenaWorm.NOBODY, right.getKilledBy());
+        assertEquals(0, left.getKills() + right.getKills());
+        assertTrue(arena.isFree(1, 2));
+        assertTrue(arena.isFree(2, 2));
+        assertTrue(arena.isFree(3, 2));
+    }
+
+    @Test
+    public void headEnteringABodyIsCreditedToThatWorm() {
+        Arena arena = new Arena(5, 5, 0, 1L);
+        ArenaWorm killer = arena.addWorm(0, 0, Direction.RIGHT);
+        arena.step(null);
+        arena.step(null);
+        ArenaWorm victim = arena.addWorm(1, 1, Direction.UP);
+
+        arena.step(null);
+
+        assertTrue(killer.isAlive());
+        assertFalse(victim.isAlive());
+        assertEquals(killer.getId(), victim.getKilledBy());
+        assertEquals(1, killer.getKills());
+        assertTrue(arena.isFree(1, 1));
+        assertFalse(arena.isFree(1, 0));
+    }
+
+    @Test
+    public void cellWhereAMushroomWasEatenBelongsToTheEater() {
+        Arena arena = new Arena(12, 8, 0, 1L);
+        // takes id 0, which unclaimed cells would otherwise be credited to
+        ArenaWorm bystander = arena.addWorm(0, 7, Direction.RIGHT);
+        ArenaWorm eater = arena.addWorm(0, 2, Direction.RIGHT);
+        arena.placeFruit(2, 2, FruitType.APPLE);
+        arena.placeFruit(5, 2, FruitType.MUSHROOM);
+        for (int tick = 0; tick < 4; tick++) {
+            arena.step(null);
+        }
+        ArenaWorm victim = arena.addWorm(5, 4, Direction.UP);
+
+        // the eater reaches (5, 2), eats the mushroom and turns back
+        arena.step(null);
+        assertEquals(4, eater.getWorm().getHeadX());
+        assertNull(arena.getFruitAt(5, 2));
+
+        arena.step(null);
+        assertTrue(eater.isAlive());
+        assertFalse(victim.isAlive());
+        assertEquals(eater.getId(), victim.getKilledBy());
+        assertEquals(1, eater.getKills());
+        assertEquals(0, bystander.getKills());
+    }
+
+    @Test
+    public void fruitUnderADeadHeadStaysOutOfTheFreeCells() {
+        Arena arena = new Arena(5, 5, 0, 1L);
+        arena.placeFruit(2, 2, FruitType.APPLE);
+        arena.addWorm(1, 2, Direction.RIGHT);
+        arena.addWorm(3, 2, Direction.LEFT);
+
+        arena.step(null);
+
+        assertEquals(0, arena.getLivingCount());
+        assertEquals(FruitType.APPLE, arena.getFruitAt(2, 2));
+        assertEquals(1, arena.getFruitCount());
+        assertFalse(arena.isFree(2, 2));
+    }
+
+    @Test
+    public void newWormsNeverSpawnOnFruit() {
+        Arena arena = new Arena(5, 5, 0, 1L);
+        arena.placeFruit(2, 2, FruitType.ORANGE);
+        arena.addWorm(1, 2, Direction.RIGHT);
+        arena.addWorm(3, 2, Direction.LEFT);
+        arena.step(null);
+
+        int spawned = 0;
+        ArenaWorm worm;
+        while ((worm = arena.addWorm()) != null) {
+            assertNull(arena.getFruitAt(worm.getWorm().getHeadX(), worm.getWorm().getHeadY()));
+            spawned++;
+        }
+        assertEquals(5 * 5 - 1, spawned);
+    }
+
+    @Test
+    public void fruitCountMatchesTheBoardWhileWormsDie() {
+        Random random = new Random(7);
+        for (long seed = 0; seed < 20; seed++) {
+            Arena arena = new Arena(8, 8, 6, seed);
+            for (int i = 0; i < 6; i++) {
+                arena.addWorm();
+            }
+            Direction[] inputs = new Direction[6];
+            while (arena.getLivingCount() > 0 && arena.getTick() < 200) {
+                for (int i = 0; i < inputs.length; i++) {
+                    inputs[i] = Direction.values()[random.nextInt(4)];
+                }
+                arena.step(inputs);
+
+                int fruits = 0;
+                for (int y = 0; y < 8; y++) {
+                    for (int x = 0; x < 8; x++) {
+                        if (arena.getFruitAt(x, y) != null) {
+                            fruits++;
+                            assertFalse(arena.isFree(x, y));
+                        }
+                    }
+                }
+                assertEquals(arena.getFruitCount(), fruits);
+            }
+        }
+    }
+}
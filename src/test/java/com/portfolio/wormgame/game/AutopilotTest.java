@@ -0,0 +1,36 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import com.portfolio.wormgame.domain.Apple;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class AutopilotTest {
+
+    @Test
+    public void distanceFieldIsManhattanOnOpenBoard() {
+        GameEngine engine = new GameEngine(70, 30, 1L);
+        engine.setApple(new Apple(3, 4));
+        Autopilot autopilot = new Autopilot();
+        assertEquals(Direction.LEFT, autopilot.decide(engine));
+        assertEquals(0, autopilot.getDistance(3, 4));
+        assertEquals(1, autopilot.getDistance(3, 5));
+        assertEquals(5, autopilot.getDistance(8, 4));
+        assertEquals(42, autopilot.getDistance(34, 15));
+        assertEquals(-1, autopilot.getDistance(60, 25));
+    }
+
+    @Test
+    public void eatsApplesAndSurvivesLong() {
+        int apples = 0;
+        for (long seed = 1; seed <= 10; seed++) {
+            GameEngine engine = new GameEngine(20, 20, seed);
+            Autopilot autopilot = new Autopilot();
+            while (engine.continues() && engine.getTick() < 3000) {
+                engine.step(autopilot.decide(engine));
+            }
+            apples += engine.getAppleCounter();
+        }
+        assertTrue("apples eaten: " + apples, apples >= 10 * 15);
+    }
+}
@@ -0,0 +1,92 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import com.portfolio.wormgame.domain.FruitType;
+import com.portfolio.wormgame.domain.Piece;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class BatchSimulationTest {
+
+    @Test
+    public void followsTheSameRulesAsGameEngine() {
+        int games = 600;
+        long[] seeds = new long[games];
+        GameEngine[] engines = new GameEngine[games];
+        for (int g = 0; g < games; g++) {
+            seeds[g] = 1000 + g;
+            engines[g] = new GameEngine(12, 10, seeds[g]);
+        }
+        BatchSimulation batch = new BatchSimulation(games, 12, 10, seeds);
+        Random inputs = new Random(5);
+        byte[] actions = new byte[games];
+
+        for (int t = 0; t < 300; t++) {
+            for (int g = 0; g < games; g++) {
+                actions[g] = inputs.nextInt(3) == 0 ? (byte) inputs.nextInt(4) : BatchSimulation.NO_ACTION;
+                engines[g].step(actions[g] < 0 ? null : Direction.values()[actions[g]]);
+            }
+            batch.step(actions);
+            for (int g = 0; g < games; g++) {
+                assertSameGame(engines[g], batch, g);
+            }
+        }
+    }
+
+    @Test
+    public void rewardsApplesAndPenalisesDeath() {
+        long[] seeds = {3L};
+        BatchSimulation batch = new BatchSimulation(1, 8, 8, seeds);
+        GameEngine engine = new GameEngine(8, 8, 3L);
+        byte[] none = {BatchSimulation.NO_ACTION};
+        while (!batch.getDone()[0]) {
+            int apples = engine.getAppleCounter();
+            engine.step(null);
+            batch.step(none);
+            float expected = (engine.getAppleCounter() - apples) - (engine.continues() || engine.isBoardFull() ? 0 : 1);
+            assertEquals(expected, batch.getRewards()[0], 0f);
+        }
+    }
+
+    @Test
+    public void fillingTheBoardIsNotPenalised() {
+        BatchSimulation batch = new BatchSimulation(1, 2, 1, new long[] {1L});
+        GameEngine engine = new GameEngine(2, 1, 1L);
+        byte[] left = {(byte) Direction.LEFT.ordinal()};
+
+        engine.step(Direction.LEFT);
+        batch.step(left);
+
+        assertTrue(engine.isBoardFull());
+        assertTrue(batch.isBoardFull(0));
+        assertTrue(batch.getDone()[0]);
+        assertEquals(1f, batch.getRewards()[0], 0f);
+    }
+
+    private static void assertSameGame(GameEngine engine, BatchSimulation batch, int g) {
+        String game = "game " + g + " at tick " + engine.getTick();
+        assertEquals(game, engine.getTick(), batch.getTicks()[g]);
+        assertEquals(game, !engine.continues(), batch.getDone()[g]);
+        assertEquals(game, engine.getWorm().getLength(), batch.getLengths()[g]);
+        assertEquals(game, engine.getWorm().getHeadX(), batch.getHeadX()[g]);
+        assertEquals(game, engine.getWorm().getHeadY(), batch.getHeadY()[g]);
+        assertEquals(game, engine.getWorm().getDirection().ordinal(), batch.getDirections()[g]);
+        assertEquals(game, engine.getAppleCounter(), batch.getAppleCounters()[g]);
+        assertEquals(game, engine.isMovingBackwards(), batch.isMovingBackwards(g));
+        assertEquals(game, engine.getWorm().getBody().getX(0), batch.getBodyX(g, 0));
+        assertEquals(game, engine.getWorm().getBody().getY(0), batch.getBodyY(g, 0));
+        assertEquals(game, fruit(engine), batch.getFruitTypes()[g] < 0 ? "none"
+                : FruitType.values()[batch.getFruitTypes()[g]] + " " + batch.getFruitCells()[g]);
+    }
+
+    private static String fruit(GameEngine engine) {
+        Piece[] fruits = {engine.getApple(), engine.getOrange(), engine.getMushroom()};
+        for (int i = 0; i < fruits.length; i++) {
+            if (fruits[i] != null) {
+                return FruitType.values()[i] + " " + (fruits[i].getY() * engine.getWidth() + fruits[i].getX());
+            }
+        }
+        return "none";
+    }
+}
@@ -0,0 +1,53 @@
+package com.portfolio.wormgame.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class EventBusTest {
+
+    @Test
+    public void deliversInOrderInBatches() {
+        EventBus bus = new EventBus(8);
+        EventBus.Subscription subscription = bus.subscribe();
+        for (int i = 0; i < 5; i++) {
+            bus.publish(GameEventType.APPLE_EATEN, i, i + 1);
+        }
+        List<Long> values = new ArrayList<>();
+        boolean[] lastEnds = new boolean[1];
+        assertEquals(3, subscription.poll((type, tick, value, end) -> {
+            values.add(value);
+            lastEnds[0] = end;
+        }, 3));
+        assertTrue(lastEnds[0]);
+        assertEquals(2, subscription.poll((type, tick, value, end) -> values.add(value), 10));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), values);
+        assertEquals(0, subscription.getLost());
+    }
+
+    @Test
+    public void slowSubscriberCountsLostEvents() {
+        EventBus bus = new EventBus(4);
+        EventBus.Subscription subscription = bus.subscribe();
+        for (int i = 0; i < 10; i++) {
+            bus.publish(GameEventType.SHRUNK, i, i);
+        }
+        List<Long> ticks = new ArrayList<>();
+        assertEquals(4, subscription.poll((type, tick, value, end) -> ticks.add(tick), 100));
+        assertEquals(List.of(6L, 7L, 8L, 9L), ticks);
+        assertEquals(6, subscription.getLost());
+    }
+
+    @Test
+    public void engineReportsDeath() {
+        GameEngine engine = new GameEngine(10, 10, 3L);
+        EventBus.Subscription subscription = engine.getEvents().subscribe();
+        while (engine.step(null)) {
+            // straight down into the wall
+        }
+        GameEventType[] last = new GameEventType[1];
+        subscription.poll((type, tick, value, end) -> last[0] = type, 100);
+        assertEquals(GameEventType.DIED, last[0]);
+    }
+}
@@ -0,0 +1,36 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import com.portfolio.wormgame.domain.FruitStore;
+import com.portfolio.wormgame.domain.FruitType;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class FruitPolicyTest {
+
+    @Test
+    public void keepsTargetCountsOnBoard() {
+        GameEngine engine = null;
+        int eaten = 0;
+        for (long seed = 1; seed <= 20; seed++) {
+            engine = new GameEngine(30, 30, seed, FruitPolicy.targets(40, 10, 5));
+            FruitStore fruits = engine.getFruits();
+            Random inputs = new Random(seed);
+            while (engine.continues() && engine.getTick() < 5000) {
+                engine.step(inputs.nextInt(4) == 0 ? Direction.values()[inputs.nextInt(4)] : null);
+                assertEquals(40, fruits.count(FruitType.APPLE));
+                assertEquals(10, fruits.count(FruitType.ORANGE));
+                assertEquals(5, fruits.count(FruitType.MUSHROOM));
+            }
+            eaten += engine.getAppleCounter();
+        }
+        assertTrue(eaten > 0);
+        try (StateSnapshot snapshot = engine.acquireSnapshot()) {
+            assertEquals(55, snapshot.getFruitCount());
+            assertEquals(FruitType.APPLE, snapshot.getFruitType(39));
+            assertEquals(FruitType.ORANGE, snapshot.getFruitType(40));
+            assertEquals(FruitType.MUSHROOM, snapshot.getFruitType(54));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import com.portfolio.wormgame.domain.Apple;
+import java.lang.management.ManagementFactory;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GameEngineAllocationTest {
+
+    private static final Direction[] LOOP = {Direction.RIGHT, Direction.DOWN, Direction.LEFT, Direction.UP};
+
+    private com.sun.management.ThreadMXBean threads;
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void steadyStateTicksAllocateNothing() {
+        GameEngine engine = new GameEngine(20, 20, 1L);
+        // keep the worm circling the top-left corner, away from the only fruit
+        engine.setApple(new Apple(19, 19));
+        for (int i = 0; i < 20_000; i++) {
+            circle(engine, i);
+        }
+        assertTrue(engine.continues());
+
+        int[] tick = {20_000};
+        long allocated = leastAllocated(() -> {
+            for (int i = 0; i < 1000; i++) {
+                circle(engine, tick[0]++);
+            }
+        });
+
+        assertTrue(engine.continues());
+        assertEquals("bytes allocated by 1000 ticks", 0, allocated);
+    }
+
+    @Test
+    public void fruitSpawningAllocatesNothing() {
+        GameEngine engine = new GameEngine(20, 20, 2L);
+        for (int i = 0; i < 10_000; i++) {
+            engine.orangeEffect();
+        }
+
+        long allocated = leastAllocated(() -> {
+            for (int i = 0; i < 1000; i++) {
+                engine.orangeEffect();
+            }
+        });
+
+        assertEquals("bytes allocated by 1000 spawns", 0, allocated);
+    }
+
+    private static void circle(GameEngine engine, int tick) {
+        engine.step(tick % 8 == 0 ? LOOP[(tick / 8) % 4] : null);
+    }
+
+    /**
+     * Smallest allocation over a few rounds, net of the probe itself; the
+     * JIT can allocate a few bytes on the thread while it compiles.
+     */
+    private long leastAllocated(Runnable work) {
+        long threadId = Thread.currentThread().getId();
+        long least = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            long probe = threads.getThreadAllocatedBytes(threadId) - before;
+            before = threads.getThreadAllocatedBytes(threadId);
+            work.run();
+            least = Math.min(least, threads.getThreadAllocatedBytes(threadId) - before - probe);
+        }
+        return least;
+    }
+}
@@ -0,0 +1,77 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import com.portfolio.wormgame.domain.Piece;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GameEngineReplayTest {
+
+    @Test
+    public void sameSeedSpawnsSameFirstFruit() {
+        GameEngine a = new GameEngine(20, 20, 42L);
+        GameEngine b = new GameEngine(20, 20, 42L);
+        assertEquals(a.getApple().toString(), b.getApple().toString());
+    }
+
+    @Test
+    public void replayFromSeedAndJournalReproducesGame() {
+        for (long seed = 1; seed <= 50; seed++) {
+            GameEngine original = new GameEngine(20, 20, seed);
+            Random inputs = new Random(seed * 31);
+            Direction[] directions = Direction.values();
+            while (original.continues() && original.getTick() < 2000) {
+                Direction input = inputs.nextInt(3) == 0 ? directions[inputs.nextInt(4)] : null;
+                original.step(input);
+            }
+
+            GameEngine replayed = GameEngine.replay(20, 20, seed, original.getJournal(), original.getTick());
+
+            assertEquals(original.getTick(), replayed.getTick());
+            assertEquals(original.continues(), replayed.continues());
+            assertEquals(original.getAppleCounter(), replayed.getAppleCounter());
+            assertEquals(original.getWorm().getDirection(), replayed.getWorm().getDirection());
+            assertEquals(original.getWorm().getBody().toString(), replayed.getWorm().getBody().toString());
+            assertEquals(describe(original.getApple()), describe(replayed.getApple()));
+            assertEquals(describe(original.getOrange()), describe(replayed.getOrange()));
+            assertEquals(describe(original.getMushroom()), describe(replayed.getMushroom()));
+        }
+    }
+
+    @Test
+    public void replayKeepsTheFruitPolicy() {
+        FruitPolicy policy = FruitPolicy.targets(6, 3, 2);
+        for (long seed = 1; seed <= 20; seed++) {
+            GameEngine original = new GameEngine(20, 20, seed, policy);
+            Random inputs = new Random(seed * 17);
+            Direction[] directions = Direction.values();
+            while (original.continues() && original.getTick() < 1000) {
+                original.step(inputs.nextInt(3) == 0 ? directions[inputs.nextInt(4)] : null);
+            }
+
+            GameEngine replayed = GameEngine.replay(20, 20, seed, policy, original.getJournal(), original.getTick());
+
+            assertEquals(original.getTick(), replayed.getTick());
+            assertEquals(original.continues(), replayed.continues());
+            assertEquals(original.getAppleCounter(), replayed.getAppleCounter());
+            assertEquals(original.getWorm().getBody().toString(), replayed.getWorm().getBody().toString());
+            assertEquals(describeFruits(original), describeFruits(replayed));
+        }
+    }
+
+    private static String describeFruits(GameEngine engine) {
+        StringBuilder fruits = new StringBuilder();
+        try (StateSnapshot snapshot = engine.acquireSnapshot()) {
+            for (int i = 0; i < snapshot.getFruitCount(); i++) {
+                fruits.append(snapshot.getFruitType(i)).append('@')
+                        .append(snapshot.getFruitX(i)).append(',').append(snapshot.getFruitY(i)).append(' ');
+            }
+        }
+        return fruits.toString();
+    }
+
+    private static String describe(Piece piece) {
+        return piece == null ? "none" : piece.toString();
+    }
+}
@@ -0,0 +1,60 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import com.portfolio.wormgame.domain.FruitType;
+import com.portfolio.wormgame.domain.Worm;
+import com.portfolio.wormgame.domain.WormBody;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GameEngineTest {
+
+    @Test
+    public void fruitNeverSpawnsUnderASwappedInWorm() {
+        GameEngine engine = new GameEngine(6, 6, 4L);
+        // everything but the last two cells of the bottom row
+        long[] cells = new long[34];
+        int length = 0;
+        for (int y = 0; y < 6; y++) {
+            for (int x = 0; x < 6 && length < cells.length; x++) {
+                cells[length++] = WormBody.pack(x, y);
+            }
+        }
+        Worm worm = new Worm(0, 0, Direction.RIGHT);
+        worm.restore(cells, length, Direction.RIGHT, false);
+
+        engine.setWorm(worm);
+
+        Set<Long> spawned = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            engine.respawnFruit();
+            assertEquals(1, engine.getFruits().size());
+            for (FruitType type : FruitType.values()) {
+                if (engine.getFruits().count(type) > 0) {
+                    long cell = engine.getFruits().cell(type, 0);
+                    assertEquals(5, WormBody.unpackY(cell));
+                    assertTrue(WormBody.unpackX(cell) >= 4);
+                    spawned.add(cell);
+                }
+            }
+        }
+        assertEquals(2, spawned.size());
+    }
+
+    @Test
+    public void swappedInWormKeepsTheOccupancyUpToDate() {
+        GameEngine engine = new GameEngine(8, 8, 2L);
+        Worm worm = new Worm(1, 1, Direction.RIGHT);
+        engine.setWorm(worm);
+        engine.step(null);
+        engine.step(null);
+        assertSame(worm, engine.getWorm());
+        assertEquals(3, worm.getLength());
+
+        // the worm now moves through the engine's grid, so it can run into itself
+        assertTrue(worm.runsInto(2, 1));
+        assertFalse(worm.runsInto(4, 4));
+    }
+}
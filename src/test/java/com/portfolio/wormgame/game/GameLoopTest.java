@@ -0,0 +1,91 @@
+package com.portfolio.wormgame.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GameLoopTest {
+
+    private static final long PERIOD = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Test
+    public void catchesUpAfterAStallThenDropsTheBacklog() throws InterruptedException {
+        List<long[]> ticks = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(5);
+        GameLoop loop = new GameLoop("test-loop", () -> PERIOD, () -> {
+            long start = System.nanoTime();
+            if (ticks.isEmpty()) {
+                sleep(8 * PERIOD);
+            }
+            synchronized (ticks) {
+                ticks.add(new long[] {start, System.nanoTime()});
+            }
+            done.countDown();
+        }, 3);
+
+        loop.start(0);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        loop.stop();
+
+        synchronized (ticks) {
+            // the stalled tick and two more run back to back...
+            assertTrue(ticks.get(1)[0] - ticks.get(0)[1] < PERIOD / 2);
+            assertTrue(ticks.get(2)[0] - ticks.get(1)[1] < PERIOD / 2);
+            // ...then the rest of the backlog is dropped and a full period passes
+            assertTrue(ticks.get(3)[0] - ticks.get(2)[1] >= PERIOD * 9 / 10);
+        }
+        assertTrue(loop.getMetrics().getLateTicks() >= 2);
+        assertTrue(loop.getMetrics().getDroppedTicks() >= 1);
+    }
+
+    @Test
+    public void stopHaltsTicksAndWaitsForTheThread() throws InterruptedException {
+        AtomicInteger ticks = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(2);
+        GameLoop loop = new GameLoop("test-loop", () -> PERIOD / 10, () -> {
+            ticks.incrementAndGet();
+            started.countDown();
+        });
+
+        loop.start(0);
+        loop.start(0);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        loop.stop();
+        assertFalse(loop.isRunning());
+
+        int stopped = ticks.get();
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(PERIOD));
+        assertEquals(stopped, ticks.get());
+        assertEquals(stopped, loop.getMetrics().getTicks());
+    }
+
+    @Test
+    public void tickMayStopItsOwnLoop() throws InterruptedException {
+        AtomicInteger ticks = new AtomicInteger();
+        CountDownLatch ticked = new CountDownLatch(1);
+        GameLoop[] loop = new GameLoop[1];
+        loop[0] = new GameLoop("test-loop", () -> PERIOD / 10, () -> {
+            ticks.incrementAndGet();
+            loop[0].stop();
+            ticked.countDown();
+        });
+
+        loop[0].start(0);
+        assertTrue(ticked.await(10, TimeUnit.SECONDS));
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(PERIOD));
+        assertFalse(loop[0].isRunning());
+        assertEquals(1, ticks.get());
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import com.portfolio.wormgame.domain.Piece;
+import com.portfolio.wormgame.domain.WormBody;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GameSnapshotCodecTest {
+
+    // byte offsets of fields in the snapshot header
+    private static final int WIDTH_OFFSET = 5;
+    private static final int FRUITS_OFFSET = 43;
+    private static final int LENGTH_OFFSET = 69;
+    private static final int BODY_OFFSET = 73;
+
+    private final GameSnapshotCodec codec = new GameSnapshotCodec();
+
+    @Test
+    public void restoredGameContinuesExactlyLikeTheOriginal() {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        GameEngine reused = new GameEngine(20, 20, 0L);
+        for (long seed = 1; seed <= 20; seed++) {
+            GameEngine original = new GameEngine(20, 20, seed);
+            Random inputs = new Random(seed);
+            play(original, inputs, 40);
+
+            buffer.clear();
+            codec.encode(original, buffer).flip();
+            GameEngine restored = codec.decode(buffer, reused);
+            assertSame(reused, restored);
+            assertFalse(buffer.hasRemaining());
+            assertSameState(original, restored);
+
+            long state = inputs.nextLong();
+            play(original, new Random(state), 200);
+            play(restored, new Random(state), 200);
+            assertSameState(original, restored);
+        }
+    }
+
+    @Test
+    public void decodesIntoNewEngineWhenBoardSizeDiffers() {
+        GameEngine original = new GameEngine(12, 9, 7L);
+        ByteBuffer buffer = ByteBuffer.allocate(GameSnapshotCodec.maxEncodedSize(original));
+        codec.encode(original, buffer).flip();
+
+        GameEngine restored = codec.decode(buffer, new GameEngine(20, 20, 7L));
+
+        assertEquals(12, restored.getWidth());
+        assertEquals(9, restored.getHeight());
+        assertSameState(original, restored);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsForeignData() {
+        codec.decode(ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}), null);
+    }
+
+    @Test
+    public void rejectsBoardSizesOutOfRange() {
+        int[][] sizes = {{0, 10}, {10, -1}, {GameSnapshotCodec.MAX_SIDE + 1, 10}, {Integer.MAX_VALUE, Integer.MAX_VALUE}};
+        for (int[] size : sizes) {
+            ByteBuffer buffer = encoded(new GameEngine(10, 10, 3L));
+            buffer.putInt(WIDTH_OFFSET, size[0]);
+            buffer.putInt(WIDTH_OFFSET + 4, size[1]);
+            assertRejected(buffer);
+        }
+    }
+
+    @Test
+    public void rejectsWormLengthsTheDataCannotHold() {
+        ByteBuffer tooLong = encoded(new GameEngine(10, 10, 3L));
+        tooLong.putInt(LENGTH_OFFSET, 11 * 11 + 1);
+        assertRejected(tooLong);
+
+        ByteBuffer truncated = encoded(new GameEngine(10, 10, 3L));
+        truncated.putInt(LENGTH_OFFSET, 100);
+        assertRejected(truncated);
+
+        ByteBuffer huge = encoded(new GameEngine(10, 10, 3L));
+        huge.putInt(LENGTH_OFFSET, Integer.MAX_VALUE);
+        assertRejected(huge);
+    }
+
+    @Test
+    public void rejectsFruitOffTheBoard() {
+        ByteBuffer buffer = encoded(new GameEngine(10, 10, 3L));
+        buffer.put(FRUITS_OFFSET, (byte) 1);
+        buffer.putLong(FRUITS_OFFSET + 1, WormBody.pack(50, 3));
+        assertRejected(buffer);
+    }
+
+    @Test
+    public void rejectsAbsoluteBodyCellsOffTheBoard() {
+        ByteBuffer buffer = encoded(new GameEngine(10, 10, 3L));
+        assertEquals(1, buffer.getInt(LENGTH_OFFSET));
+        // a one-piece body is as long as one absolute cell
+        buffer.put(LENGTH_OFFSET - 1, (byte) 1);
+        buffer.putLong(BODY_OFFSET, WormBody.pack(-2, 0));
+        assertRejected(buffer);
+    }
+
+    @Test
+    public void rejectsStepsThatWalkOffTheBoard() {
+        GameEngine engine = new GameEngine(10, 10, 3L);
+        engine.step(null);
+        engine.step(null);
+        ByteBuffer buffer = encoded(engine);
+        assertEquals(3, buffer.getInt(LENGTH_OFFSET));
+        // starts on the border, then two steps right
+        buffer.putInt(BODY_OFFSET, 10);
+        buffer.put(BODY_OFFSET + 8, (byte) (Direction.RIGHT.ordinal() | Direction.RIGHT.ordinal() << 2));
+        assertRejected(buffer);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAnEngineOnAnotherFruitPolicy() {
+        ByteBuffer buffer = encoded(new GameEngine(10, 10, 3L));
+        codec.decode(buffer, new GameEngine(10, 10, 3L, FruitPolicy.targets(2, 1, 0)));
+    }
+
+    private ByteBuffer encoded(GameEngine engine) {
+        ByteBuffer buffer = ByteBuffer.allocate(GameSnapshotCodec.maxEncodedSize(engine));
+        codec.encode(engine, buffer).flip();
+        return buffer;
+    }
+
+    private void assertRejected(ByteBuffer buffer) {
+        try {
+            codec.decode(buffer, null);
+            fail("Expected the snapshot to be rejected");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private static void play(GameEngine engine, Random inputs, int ticks) {
+        Direction[] directions = Direction.values();
+        for (int i = 0; i < ticks && engine.continues(); i++) {
+            engine.step(inputs.nextInt(3) == 0 ? directions[inputs.nextInt(4)] : null);
+        }
+    }
+
+    private static void assertSameState(GameEngine expected, GameEngine actual) {
+        assertEquals(expected.getTick(), actual.getTick());
+        assertEquals(expected.continues(), actual.continues());
+        assertEquals(expected.getAppleCounter(), actual.getAppleCounter());
+        assertEquals(expected.isMovingBackwards(), actual.isMovingBackwards());
+        assertEquals(expected.getWorm().getDirection(), actual.getWorm().getDirection());
+        assertEquals(expected.getWorm().getBody().toString(), actual.getWorm().getBody().toString());
+        assertEquals(describe(expected.getApple()), describe(actual.getApple()));
+        assertEquals(describe(expected.getOrange()), describe(actual.getOrange()));
+        assertEquals(describe(expected.getMushroom()), describe(actual.getMushroom()));
+        assertEquals(expected.getRandom().getState(), actual.getRandom().getState());
+    }
+
+    private static String describe(Piece piece) {
+        return piece == null ? "none" : piece.toString();
+    }
+}
@@ -0,0 +1,38 @@
+package com.portfolio.wormgame.game;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class HamiltonianControllerTest {
+
+    @Test
+    public void cycleVisitsEveryCellOnce() {
+        HamiltonianController controller = new HamiltonianController(5, 4);
+        boolean[] seen = new boolean[20];
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 5; x++) {
+                int index = controller.cycleIndex(x, y);
+                assertFalse(seen[index]);
+                seen[index] = true;
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOddByOddBoards() {
+        new HamiltonianController(5, 5);
+    }
+
+    @Test
+    public void fillsTheBoard() {
+        int[][] sizes = {{10, 10}, {9, 6}, {6, 9}};
+        for (int[] size : sizes) {
+            GameEngine engine = new GameEngine(size[0], size[1], 3L, FruitPolicy.targets(1, 0, 0));
+            HamiltonianController controller = new HamiltonianController(size[0], size[1]);
+            while (engine.continues()) {
+                engine.step(controller.decide(engine));
+            }
+            assertTrue(size[0] + "x" + size[1], engine.isBoardFull());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class InputQueueTest {
+
+    @Test
+    public void rejectsOffersWhenFull() {
+        InputQueue queue = new InputQueue(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(Direction.UP));
+        }
+        assertFalse(queue.offer(Direction.DOWN));
+        assertEquals(Direction.UP, queue.poll());
+        assertTrue(queue.offer(Direction.DOWN));
+    }
+
+    @Test
+    public void concurrentProducersLoseNothing() throws InterruptedException {
+        InputQueue queue = new InputQueue(64);
+        int producers = 4;
+        int perProducer = 20000;
+        int[] expected = new int[4];
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            Direction direction = Direction.values()[p];
+            expected[p] = perProducer;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!queue.offer(direction)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads[p].start();
+        }
+        int[] received = new int[4];
+        int total = 0;
+        while (total < producers * perProducer) {
+            Direction direction = queue.poll();
+            if (direction != null) {
+                received[direction.ordinal()]++;
+                total++;
+            } else {
+                Thread.yield();
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertArrayEquals(expected, received);
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void quickPressesApplyOnConsecutiveTicks() {
+        GameEngine engine = new GameEngine(20, 20, 1L);
+        engine.submitInput(Direction.DOWN);
+        engine.submitInput(Direction.LEFT);
+        engine.submitInput(Direction.UP);
+        engine.step();
+        assertEquals(Direction.LEFT, engine.getWorm().getDirection());
+        engine.step();
+        assertEquals(Direction.UP, engine.getWorm().getDirection());
+        assertEquals(2, engine.getJournal().size());
+    }
+}
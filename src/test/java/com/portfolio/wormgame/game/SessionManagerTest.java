@@ -0,0 +1,131 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class SessionManagerTest {
+
+    @Test
+    public void autopilotSessionsOfDifferentSizesShareAShard() throws InterruptedException {
+        SessionManager manager = new SessionManager(1, SpeedCurve.constant(1), 0);
+        GameSession small = manager.add(new GameEngine(10, 10, 5L));
+        GameSession wide = manager.add(new GameEngine(24, 8, 6L));
+        small.setAutopilot(true);
+        wide.setAutopilot(true);
+        manager.start();
+        Thread.sleep(200);
+        manager.stop();
+
+        assertTrue(small.getEngine().getTick() > 0);
+        assertTrue(wide.getEngine().getTick() > 0);
+        assertPlayedLikeAnOwnAutopilot(small.getEngine(), 10, 10, 5L);
+        assertPlayedLikeAnOwnAutopilot(wide.getEngine(), 24, 8, 6L);
+    }
+
+    @Test
+    public void sessionsAreSpreadOverShardsAndLeaveWhenRemoved() throws InterruptedException {
+        SessionManager manager = new SessionManager(3, SpeedCurve.constant(1_000_000L), 0);
+        GameSession[] sessions = new GameSession[6];
+        for (int i = 0; i < sessions.length; i++) {
+            sessions[i] = manager.add(new GameEngine(40, 40, i));
+            sessions[i].setAutopilot(true);
+        }
+        assertEquals(6, manager.size());
+        assertSame(sessions[2], manager.get(sessions[2].getId()));
+        manager.start();
+        try {
+            awaitTick(sessions, 5);
+            for (int shard = 0; shard < manager.getShardCount(); shard++) {
+                assertTrue(manager.getShardMetrics(shard).getTicks() > 0);
+            }
+
+            assertTrue(manager.remove(sessions[0].getId()));
+            assertFalse(manager.remove(sessions[0].getId()));
+            assertNull(manager.get(sessions[0].getId()));
+            assertEquals(5, manager.size());
+
+            // the shard drops it on its next pass, then never steps it again
+            Thread.sleep(50);
+            long removedAt = sessions[0].getEngine().getTick();
+            long otherAt = sessions[1].getEngine().getTick();
+            Thread.sleep(100);
+            assertEquals(removedAt, sessions[0].getEngine().getTick());
+            assertTrue(sessions[1].getEngine().getTick() > otherAt);
+        } finally {
+            manager.stop();
+        }
+    }
+
+    @Test
+    public void finishedSessionsLeaveAndFreeTheirPlace() throws InterruptedException {
+        SessionManager manager = new SessionManager(2, SpeedCurve.constant(1_000_000L), 0);
+        // no steering, so each worm runs straight into the bottom wall
+        GameSession first = manager.add(new GameEngine(6, 6, 1L));
+        GameSession second = manager.add(new GameEngine(6, 6, 2L));
+        assertEquals(2, manager.size());
+        manager.start();
+        try {
+            long giveUp = System.currentTimeMillis() + 10_000;
+            while (manager.size() > 0) {
+                assertTrue("finished sessions were kept", System.currentTimeMillis() < giveUp);
+                Thread.sleep(5);
+            }
+            assertFalse(first.getEngine().continues());
+            assertFalse(second.getEngine().continues());
+            assertNull(manager.get(first.getId()));
+            assertFalse(manager.remove(second.getId()));
+
+            // a cap of two has room again
+            GameSession next = manager.add(new GameEngine(6, 6, 3L));
+            assertEquals(1, manager.size());
+            assertSame(next, manager.get(next.getId()));
+        } finally {
+            manager.stop();
+        }
+    }
+
+    @Test
+    public void directionsReachOnlyTheirOwnSession() throws InterruptedException {
+        SessionManager manager = new SessionManager(2, SpeedCurve.constant(5_000_000L), 0);
+        GameSession left = manager.add(new GameEngine(20, 20, 1L));
+        GameSession right = manager.add(new GameEngine(20, 20, 1L));
+        GameSession straight = manager.add(new GameEngine(20, 20, 1L));
+        left.setDirection(Direction.LEFT);
+        right.setDirection(Direction.RIGHT);
+        manager.start();
+        try {
+            awaitTick(new GameSession[] {left, right, straight}, 3);
+        } finally {
+            manager.stop();
+        }
+
+        assertEquals(Direction.LEFT, left.getEngine().getWorm().getDirection());
+        assertEquals(Direction.RIGHT, right.getEngine().getWorm().getDirection());
+        assertEquals(Direction.DOWN, straight.getEngine().getWorm().getDirection());
+        assertTrue(left.getEngine().getWorm().getHeadX() < 10);
+        assertTrue(right.getEngine().getWorm().getHeadX() > 10);
+        assertEquals(10, straight.getEngine().getWorm().getHeadX());
+    }
+
+    private static void awaitTick(GameSession[] sessions, long tick) throws InterruptedException {
+        long giveUp = System.currentTimeMillis() + 10_000;
+        for (GameSession session : sessions) {
+            while (session.getEngine().getTick() < tick && session.getEngine().continues()) {
+                assertTrue("session " + session.getId() + " stalled", System.currentTimeMillis() < giveUp);
+                Thread.sleep(5);
+            }
+        }
+    }
+
+    private static void assertPlayedLikeAnOwnAutopilot(GameEngine played, int width, int height, long seed) {
+        GameEngine expected = new GameEngine(width, height, seed);
+        Autopilot autopilot = new Autopilot();
+        while (expected.getTick() < played.getTick()) {
+            expected.step(autopilot.decide(expected));
+        }
+        assertEquals(expected.continues(), played.continues());
+        assertEquals(expected.getAppleCounter(), played.getAppleCounter());
+        assertEquals(expected.getWorm().getBody().toString(), played.getWorm().getBody().toString());
+    }
+}
@@ -0,0 +1,55 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.domain.FruitType;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class SnapshotPublisherTest {
+
+    @Test
+    public void heldSnapshotDoesNotChange() {
+        GameEngine engine = new GameEngine(20, 20, 5L);
+        StateSnapshot held = engine.acquireSnapshot();
+        assertEquals(0, held.getVersion());
+        int headY = held.getY(held.getLength() - 1);
+        for (int i = 0; i < 5; i++) {
+            engine.step(null);
+        }
+        assertEquals(0, held.getVersion());
+        assertEquals(headY, held.getY(held.getLength() - 1));
+        held.close();
+
+        try (StateSnapshot latest = engine.acquireSnapshot()) {
+            assertEquals(5, latest.getVersion());
+            assertEquals(engine.getWorm().getHeadY(), latest.getY(latest.getLength() - 1));
+            assertEquals(engine.getApple() != null, latest.hasFruit(FruitType.APPLE));
+        }
+    }
+
+    @Test
+    public void concurrentReaderSeesConsistentTicks() throws InterruptedException {
+        GameEngine engine = new GameEngine(40, 40, 9L);
+        boolean[] failed = new boolean[1];
+        Thread reader = new Thread(() -> {
+            long last = -1;
+            for (int i = 0; i < 20000; i++) {
+                try (StateSnapshot snapshot = engine.acquireSnapshot()) {
+                    long version = snapshot.getVersion();
+                    // the worm moves straight down one cell per tick
+                    int headY = snapshot.getY(snapshot.getLength() - 1);
+                    if (version < last || headY != 20 + (int) version) {
+                        failed[0] = true;
+                    }
+                    last = version;
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 18; i++) {
+            engine.step(null);
+            Thread.yield();
+        }
+        reader.join();
+        assertFalse(failed[0]);
+    }
+}
@@ -0,0 +1,54 @@
+package com.portfolio.wormgame.game;
+
+import com.portfolio.wormgame.Direction;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TournamentTest {
+
+    @Test
+    public void resultsAreReproducibleAcrossPools() {
+        long[] seeds = new long[12];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = 1000 + i;
+        }
+        List<TournamentResult> parallel = tournament(new ForkJoinPool(4)).run(seeds);
+        List<TournamentResult> serial = tournament(new ForkJoinPool(1)).run(seeds);
+
+        assertEquals(2, parallel.size());
+        for (int s = 0; s < parallel.size(); s++) {
+            for (int g = 0; g < seeds.length; g++) {
+                assertEquals(serial.get(s).getLength(g), parallel.get(s).getLength(g));
+                assertEquals(serial.get(s).getTicks(g), parallel.get(s).getTicks(g));
+            }
+        }
+        assertTrue(parallel.get(0).getMeanApples() > parallel.get(1).getMeanApples());
+    }
+
+    @Test
+    public void fillingTheBoardCountsAsSurviving() {
+        // on a 2x1 board one step left fills it; going straight runs into the wall
+        List<TournamentResult> results = new Tournament(2, 1, 100, new ForkJoinPool(1))
+                .add("left", () -> engine -> Direction.LEFT)
+                .add("straight", () -> engine -> null)
+                .run(new long[] {1L, 2L});
+
+        TournamentResult left = results.get(0);
+        TournamentResult straight = results.get(1);
+        for (int g = 0; g < 2; g++) {
+            assertEquals(2, left.getLength(g));
+            assertTrue(left.survived(g));
+            assertFalse(straight.survived(g));
+        }
+        assertEquals(1.0, left.getSurvivalRate(), 0.0);
+        assertEquals(0.0, straight.getSurvivalRate(), 0.0);
+    }
+
+    private static Tournament tournament(ForkJoinPool pool) {
+        return new Tournament(20, 20, 2000, pool)
+                .add("autopilot", Autopilot::new)
+                .add("straight", () -> engine -> null);
+    }
+}
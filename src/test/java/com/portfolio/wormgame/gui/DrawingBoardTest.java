@@ -0,0 +1,121 @@
+package com.portfolio.wormgame.gui;
+
+import com.portfolio.wormgame.Direction;
+import com.portfolio.wormgame.game.Autopilot;
+import com.portfolio.wormgame.game.GameEngine;
+import com.portfolio.wormgame.game.WormGame;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import javax.swing.SwingUtilities;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class DrawingBoardTest {
+
+    private static final int PIECE = 20;
+
+    @Test
+    public void incrementalFramesMatchFullRedraws() {
+        for (long seed = 1; seed <= 6; seed++) {
+            GameEngine engine = new GameEngine(15, 15, seed);
+            WormGame game = runningGame(engine);
+            DrawingBoard board = board(game);
+            Autopilot autopilot = new Autopilot();
+            Random random = new Random(seed);
+            paint(board);
+            while (engine.continues() && engine.getTick() < 250) {
+                // mostly the autopilot, with the odd random turn into mushrooms and walls
+                engine.step(random.nextInt(10) == 0 ? Direction.values()[random.nextInt(4)] : autopilot.decide(engine));
+                if (random.nextInt(4) == 0) {
+                    paint(board);
+                }
+                if (random.nextInt(7) != 0) {
+                    update(board);
+                }
+                assertArrayEquals("seed " + seed + " tick " + engine.getTick(), paint(board(game)), paint(board));
+            }
+        }
+    }
+
+    @Test
+    public void paintBeforeUpdateStillRepaintsTheChangedCells() {
+        GameEngine engine = new GameEngine(15, 15, 1L);
+        int[] repaints = new int[1];
+        DrawingBoard board = new DrawingBoard(runningGame(engine), PIECE) {
+            @Override
+            public void repaint(long tm, int x, int y, int width, int height) {
+                repaints[0]++;
+            }
+        };
+        board.setSize(16 * PIECE, 16 * PIECE);
+        for (int i = 0; i < 5; i++) {
+            engine.step(null);
+            update(board);
+        }
+
+        engine.step(null);
+        repaints[0] = 0;
+        update(board);
+        int ordinary = repaints[0];
+        assertTrue(ordinary > 0 && ordinary <= 4);
+
+        engine.step(null);
+        paint(board);
+        repaints[0] = 0;
+        update(board);
+        assertEquals(ordinary, repaints[0]);
+    }
+
+    @Test
+    public void updatesFromTheLoopThreadRenderOnTheEdt() {
+        GameEngine engine = new GameEngine(15, 15, 1L);
+        boolean[] offEdt = new boolean[1];
+        DrawingBoard board = new DrawingBoard(runningGame(engine), PIECE) {
+            @Override
+            public void repaint(long tm, int x, int y, int width, int height) {
+                offEdt[0] |= !SwingUtilities.isEventDispatchThread();
+            }
+        };
+        board.setSize(16 * PIECE, 16 * PIECE);
+        offEdt[0] = false;
+        for (int i = 0; i < 5; i++) {
+            engine.step(null);
+            update(board);
+        }
+        assertFalse(offEdt[0]);
+    }
+
+    private static WormGame runningGame(GameEngine engine) {
+        return new WormGame(engine) {
+            @Override
+            public boolean isRunning() {
+                return true;
+            }
+        };
+    }
+
+    /** Updates from this thread, as the loop does, and waits for the EDT to catch up. */
+    private static void update(DrawingBoard board) {
+        board.update();
+        try {
+            SwingUtilities.invokeAndWait(() -> { });
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static DrawingBoard board(WormGame game) {
+        DrawingBoard board = new DrawingBoard(game, PIECE);
+        board.setSize(16 * PIECE, 16 * PIECE);
+        return board;
+    }
+
+    private static int[] paint(DrawingBoard board) {
+        BufferedImage image = new BufferedImage(board.getWidth(), board.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        board.paint(g2d);
+        g2d.dispose();
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+}
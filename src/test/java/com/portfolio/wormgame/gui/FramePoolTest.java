@@ -0,0 +1,76 @@
+package com.portfolio.wormgame.gui;
+
+import java.awt.image.BufferedImage;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class FramePoolTest {
+
+    @Test
+    public void reusesReleasedFramesOfTheSameSize() {
+        FramePool pool = new FramePool(2);
+        BufferedImage frame = pool.acquire(40, 30);
+        assertEquals(BufferedImage.TYPE_INT_RGB, frame.getType());
+        pool.release(frame);
+        assertSame(frame, pool.acquire(40, 30));
+
+        pool.release(frame);
+        BufferedImage other = pool.acquire(30, 40);
+        assertNotSame(frame, other);
+        assertEquals(30, other.getWidth());
+        assertEquals(1, pool.getIdle(40, 30));
+    }
+
+    @Test
+    public void keepsAtMostTheIdleLimit() {
+        FramePool pool = new FramePool(2);
+        BufferedImage[] frames = new BufferedImage[3];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = pool.acquire(10, 10);
+        }
+        for (BufferedImage frame : frames) {
+            pool.release(frame);
+        }
+        assertEquals(2, pool.getIdle(10, 10));
+        pool.release(new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB));
+        assertEquals(2, pool.getIdle(10, 10));
+    }
+
+    @Test
+    public void dropsLeastRecentlyUsedSizesOverTheByteBudget() {
+        // room for three 10x10 frames
+        FramePool pool = new FramePool(4, 3 * 400);
+        BufferedImage small = pool.acquire(10, 10);
+        BufferedImage wide = pool.acquire(20, 5);
+        BufferedImage tall = pool.acquire(5, 20);
+        pool.release(small);
+        pool.release(wide);
+        pool.release(tall);
+        assertEquals(1200, pool.getIdleBytes());
+
+        // 10x10 was used last, so 20x5 is the one to go
+        assertSame(small, pool.acquire(10, 10));
+        pool.release(small);
+        pool.release(new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB));
+
+        assertEquals(2, pool.getIdle(10, 10));
+        assertEquals(0, pool.getIdle(20, 5));
+        assertEquals(1, pool.getIdle(5, 20));
+        assertEquals(1200, pool.getIdleBytes());
+    }
+
+    @Test
+    public void neverHoldsMoreThanTheByteBudget() {
+        FramePool pool = new FramePool(8, 1000);
+        pool.release(new BufferedImage(20, 20, BufferedImage.TYPE_INT_RGB));
+        assertEquals(0, pool.getIdle(20, 20));
+
+        for (int i = 0; i < 5; i++) {
+            pool.release(new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB));
+            pool.release(new BufferedImage(5, 5, BufferedImage.TYPE_INT_RGB));
+            assertTrue(pool.getIdleBytes() <= 1000);
+        }
+        pool.acquire(10, 10);
+        assertEquals(400 * pool.getIdle(10, 10) + 100 * pool.getIdle(5, 5), pool.getIdleBytes());
+    }
+}
@@ -0,0 +1,178 @@
+package com.portfolio.wormgame.gui;
+
+import com.portfolio.wormgame.Direction;
+import com.portfolio.wormgame.game.GameEngine;
+import com.portfolio.wormgame.game.StateSnapshot;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class FrameRasterizerTest {
+
+    private static final int PIECE = 12;
+    private static final int BACKGROUND = 0x808080;
+    private static final int WORM_COLOR = 0x1dbf44;
+
+    private final FrameRasterizer rasterizer = new FrameRasterizer(PIECE);
+    private final BufferedImage[] icons = {
+        SpriteCache.get(SpriteCache.APPLE, PIECE), SpriteCache.get(SpriteCache.ORANGE, PIECE),
+        SpriteCache.get(SpriteCache.MUSHROOM, PIECE)
+    };
+    private final SpriteAtlas atlas = SpriteCache.atlas(PIECE);
+
+    @Test
+    public void frameCoversTheBoardAndOneCellPastIt() {
+        GameEngine engine = new GameEngine(10, 7, 1L);
+        try (StateSnapshot snapshot = engine.acquireSnapshot()) {
+            BufferedImage frame = this.rasterizer.render(snapshot, false);
+            assertEquals(11 * PIECE, frame.getWidth());
+            assertEquals(8 * PIECE, frame.getHeight());
+            assertEquals(BufferedImage.TYPE_INT_RGB, frame.getType());
+            // the extra column and row hold nothing yet
+            assertEquals(BACKGROUND, frame.getRGB(10 * PIECE + 3, 2) & 0xffffff);
+            assertEquals(BACKGROUND, frame.getRGB(3, 7 * PIECE + 3) & 0xffffff);
+        }
+    }
+
+    @Test
+    public void matchesJava2dWhileThePlayGoesOn() {
+        for (long seed = 1; seed <= 5; seed++) {
+            GameEngine engine = new GameEngine(10, 7, seed);
+            for (int tick = 0; tick < 12 && engine.continues(); tick++) {
+                engine.step(tick == 4 ? Direction.RIGHT : null);
+                assertMatchesReference(this.rasterizer, this.icons, this.atlas, engine, true);
+                assertMatchesReference(this.rasterizer, this.icons, this.atlas, engine, false);
+            }
+        }
+    }
+
+    @Test
+    public void blendsTranslucentSpritesLikeJava2d() {
+        // the icons are opaque once scaled, so blending is checked with see-through sprites
+        BufferedImage[] fruits = {translucent(0xd02020), translucent(0xf0a020), translucent(0x8040c0)};
+        SpriteAtlas worm = new SpriteAtlas(PIECE, translucent(0x204080), translucent(0x20c0c0), null);
+        FrameRasterizer blending = new FrameRasterizer(PIECE, fruits[0], fruits[1], fruits[2], worm);
+        for (long seed = 1; seed <= 5; seed++) {
+            GameEngine engine = new GameEngine(10, 7, seed);
+            for (int tick = 0; tick < 12 && engine.continues(); tick++) {
+                engine.step(tick == 6 ? Direction.LEFT : null);
+                assertMatchesReference(blending, fruits, worm, engine, true);
+            }
+        }
+    }
+
+    @Test
+    public void wormIsLeftOutUnlessDrawn() {
+        GameEngine engine = new GameEngine(10, 7, 2L);
+        engine.step(null);
+        engine.step(null);
+        try (StateSnapshot snapshot = engine.acquireSnapshot()) {
+            assertEquals(3, snapshot.getLength());
+            int x = snapshot.getX(1) * PIECE + PIECE / 2;
+            int y = snapshot.getY(1) * PIECE + PIECE / 2;
+            assertEquals(BACKGROUND, this.rasterizer.render(snapshot, false).getRGB(x, y) & 0xffffff);
+            assertEquals(WORM_COLOR, this.rasterizer.render(snapshot, true).getRGB(x, y) & 0xffffff);
+        }
+    }
+
+    @Test
+    public void clipsPiecesPastTheFrame() {
+        // straight down runs out through the extra row; a left turn runs out through the left edge
+        Direction[] turns = {null, Direction.LEFT};
+        for (Direction turn : turns) {
+            GameEngine engine = new GameEngine(6, 5, 3L);
+            engine.step(turn);
+            while (engine.continues()) {
+                engine.step(null);
+            }
+            try (StateSnapshot snapshot = engine.acquireSnapshot()) {
+                int head = snapshot.getLength() - 1;
+                assertTrue(snapshot.getX(head) == -1 || snapshot.getY(head) == snapshot.getHeight() + 1);
+            }
+            assertMatchesReference(this.rasterizer, this.icons, this.atlas, engine, true);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAFrameOfTheWrongSize() {
+        GameEngine engine = new GameEngine(10, 7, 1L);
+        try (StateSnapshot snapshot = engine.acquireSnapshot()) {
+            this.rasterizer.render(snapshot, true, new BufferedImage(10 * PIECE, 7 * PIECE, BufferedImage.TYPE_INT_RGB));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAFrameOfTheWrongType() {
+        GameEngine engine = new GameEngine(10, 7, 1L);
+        try (StateSnapshot snapshot = engine.acquireSnapshot()) {
+            this.rasterizer.render(snapshot, true, new BufferedImage(11 * PIECE, 8 * PIECE, BufferedImage.TYPE_INT_ARGB));
+        }
+    }
+
+    /** Compares with the same layout drawn through Graphics2D, within rounding. */
+    private static void assertMatchesReference(FrameRasterizer rasterizer, BufferedImage[] fruits, SpriteAtlas atlas,
+            GameEngine engine, boolean drawWorm) {
+        try (StateSnapshot snapshot = engine.acquireSnapshot()) {
+            BufferedImage actual = rasterizer.render(snapshot, drawWorm);
+            BufferedImage expected = reference(snapshot, drawWorm, fruits, atlas);
+            for (int y = 0; y < expected.getHeight(); y++) {
+                for (int x = 0; x < expected.getWidth(); x++) {
+                    int a = actual.getRGB(x, y);
+                    int e = expected.getRGB(x, y);
+                    for (int shift = 0; shift < 24; shift += 8) {
+                        int difference = Math.abs(((a >> shift) & 0xff) - ((e >> shift) & 0xff));
+                        assertTrue("pixel " + x + "," + y + " at tick " + engine.getTick(), difference <= 2);
+                    }
+                }
+            }
+        }
+    }
+
+    private static BufferedImage reference(StateSnapshot snapshot, boolean drawWorm, BufferedImage[] fruits, SpriteAtlas atlas) {
+        int width = (snapshot.getWidth() + 1) * PIECE;
+        int height = (snapshot.getHeight() + 1) * PIECE;
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setColor(new Color(BACKGROUND));
+        g2d.fillRect(0, 0, width, height);
+        for (int i = 0; i < snapshot.getFruitCount(); i++) {
+            BufferedImage sprite = fruits[snapshot.getFruitType(i).ordinal()];
+            if (sprite != null) {
+                g2d.drawImage(sprite, snapshot.getFruitX(i) * PIECE, snapshot.getFruitY(i) * PIECE, null);
+            }
+        }
+        if (drawWorm) {
+            int length = snapshot.getLength();
+            for (int i = length - 1; i >= 0; i--) {
+                BufferedImage sprite = null;
+                if (i == 0) {
+                    sprite = atlas.getTail(SpriteAtlas.tailTurns(snapshot));
+                } else if (i == length - 1) {
+                    sprite = atlas.getHead(SpriteAtlas.headTurns(snapshot));
+                }
+                if (sprite != null) {
+                    g2d.drawImage(sprite, snapshot.getX(i) * PIECE, snapshot.getY(i) * PIECE, null);
+                } else {
+                    g2d.setColor(new Color(WORM_COLOR));
+                    g2d.fillRect(snapshot.getX(i) * PIECE, snapshot.getY(i) * PIECE, PIECE, PIECE);
+                }
+            }
+        }
+        g2d.dispose();
+        return image;
+    }
+
+    /** A sprite whose alpha runs from clear at the left edge to opaque at the right. */
+    private static BufferedImage translucent(int rgb) {
+        BufferedImage sprite = new BufferedImage(PIECE, PIECE, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < PIECE; y++) {
+            for (int x = 0; x < PIECE; x++) {
+                int alpha = x * 255 / (PIECE - 1);
+                sprite.setRGB(x, y, (alpha << 24) | (rgb + y * 0x010101 * 4));
+            }
+        }
+        return sprite;
+    }
+}